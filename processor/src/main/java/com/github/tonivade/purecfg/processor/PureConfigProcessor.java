@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a reader for every record annotated with {@code @PureConfig}. The generated code reads the
+ * components directly from the source with constant keys, and builds an equivalent {@code PureCFG} program
+ * for composition.
+ */
+@SupportedAnnotationTypes(PureConfigProcessor.PURE_CONFIG)
+public final class PureConfigProcessor extends AbstractProcessor {
+
+  static final String PURE_CONFIG = "com.github.tonivade.purecfg.PureConfig";
+
+  private static final String GENERATED = "javax.annotation.processing.Generated";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.RECORD) {
+          error(element, "@PureConfig is only supported in records");
+        } else {
+          generate((TypeElement) element);
+        }
+      }
+    }
+    return true;
+  }
+
+  private void generate(TypeElement type) {
+    List<Component> components = new ArrayList<>();
+    for (RecordComponentElement element : type.getRecordComponents()) {
+      Component component = component(element);
+      if (component == null) {
+        error(element, "type not supported by @PureConfig: " + element.asType());
+        return;
+      }
+      components.add(component);
+    }
+    String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String readerName = readerName(type);
+    String qualifiedName = packageName.isEmpty() ? readerName : packageName + "." + readerName;
+    try (PrintWriter writer = new PrintWriter(
+        processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())) {
+      writer.print(new Generator(packageName, readerName, type.getQualifiedName().toString(),
+          key(type), components).generate());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Component component(RecordComponentElement element) {
+    String name = element.getSimpleName().toString();
+    TypeMirror type = element.asType();
+    return switch (type.getKind()) {
+      case INT -> new Component(name, "Integer", "getInteger", "readInt", true);
+      case LONG -> new Component(name, "Long", "getLong", "readLong", true);
+      case DOUBLE -> new Component(name, "Double", "getDouble", "readDouble", true);
+      case BOOLEAN -> new Component(name, "Boolean", "getBoolean", "readBoolean", true);
+      case ARRAY -> array(name, (ArrayType) type);
+      case DECLARED -> declared(name, (DeclaredType) type);
+      default -> null;
+    };
+  }
+
+  private static Component array(String name, ArrayType type) {
+    return switch (type.getComponentType().getKind()) {
+      case INT -> new Component(name, "int[]", "getIntArray", "readIntArray", false);
+      case LONG -> new Component(name, "long[]", "getLongArray", "readLongArray", false);
+      case DOUBLE -> new Component(name, "double[]", "getDoubleArray", "readDoubleArray", false);
+      default -> null;
+    };
+  }
+
+  private Component declared(String name, DeclaredType type) {
+    TypeElement element = (TypeElement) type.asElement();
+    return switch (element.getQualifiedName().toString()) {
+      case "java.lang.String" -> new Component(name, "String", "getString", "readString", true);
+      case "java.lang.Integer" -> new Component(name, "Integer", "getInteger", "readInt", true);
+      case "java.lang.Long" -> new Component(name, "Long", "getLong", "readLong", true);
+      case "java.lang.Double" -> new Component(name, "Double", "getDouble", "readDouble", true);
+      case "java.lang.Boolean" -> new Component(name, "Boolean", "getBoolean", "readBoolean", true);
+      case "java.time.Duration" -> new Component(name, "java.time.Duration", "getDuration", "readDuration", true);
+      default -> {
+        if (element.getKind() == ElementKind.RECORD && findPureConfig(element) != null) {
+          String reader = qualifiedReaderName(element);
+          yield new Component(name, element.getQualifiedName().toString(), reader, reader, false);
+        }
+        yield null;
+      }
+    };
+  }
+
+  private String qualifiedReaderName(TypeElement type) {
+    PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+    String packageName = packageElement.getQualifiedName().toString();
+    return packageName.isEmpty() ? readerName(type) : packageName + "." + readerName(type);
+  }
+
+  /**
+   * Nested records are generated as {@code Outer_InnerReader}.
+   */
+  private static String readerName(TypeElement type) {
+    List<String> names = new ArrayList<>();
+    Element current = type;
+    while (current instanceof TypeElement element) {
+      names.add(0, element.getSimpleName().toString());
+      current = element.getEnclosingElement();
+    }
+    return String.join("_", names) + "Reader";
+  }
+
+  private static String key(TypeElement type) {
+    AnnotationMirror annotation = findPureConfig(type);
+    if (annotation != null) {
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+          : annotation.getElementValues().entrySet()) {
+        if (entry.getKey().getSimpleName().contentEquals("value")) {
+          return String.valueOf(entry.getValue().getValue());
+        }
+      }
+    }
+    return "";
+  }
+
+  private static AnnotationMirror findPureConfig(Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(PURE_CONFIG)) {
+        return annotation;
+      }
+    }
+    return null;
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  /**
+   * @param name name of the record component, also used as key
+   * @param type type used in the generated code, boxed for primitives
+   * @param getter method of the source used to read the value, or the reader of a nested record
+   * @param reader method of {@code PureCFG} used to create the program, or the reader of a nested record
+   * @param optional true if the getter returns an {@code Option}
+   */
+  record Component(String name, String type, String getter, String reader, boolean optional) {
+
+    boolean isNested() {
+      return getter.endsWith("Reader");
+    }
+
+    String constant() {
+      return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_KEY";
+    }
+  }
+
+  private static final class Generator {
+
+    private final String packageName;
+    private final String readerName;
+    private final String recordName;
+    private final String key;
+    private final List<Component> components;
+    private final StringBuilder out = new StringBuilder();
+
+    Generator(String packageName, String readerName, String recordName, String key, List<Component> components) {
+      this.packageName = packageName;
+      this.readerName = readerName;
+      this.recordName = recordName;
+      this.key = key;
+      this.components = components;
+    }
+
+    String generate() {
+      if (!packageName.isEmpty()) {
+        line("package " + packageName + ";");
+        line("");
+      }
+      line("import com.github.tonivade.purecfg.PureCFG;");
+      line("import com.github.tonivade.purecfg.Source;");
+      line("import com.github.tonivade.purefun.type.Option;");
+      line("import java.util.List;");
+      line("import java.util.NoSuchElementException;");
+      line("");
+      line("@" + GENERATED + "(\"" + PureConfigProcessor.class.getName() + "\")");
+      line("public final class " + readerName + " {");
+      line("");
+      line("  public static final String KEY = " + literal(key) + ";");
+      line("");
+      for (Component component : components) {
+        line("  private static final String " + component.constant() + " = "
+            + literal(key.isEmpty() ? component.name() : key + "." + component.name()) + ";");
+      }
+      line("");
+      line("  private static final PureCFG<" + recordName + "> PROGRAM = createProgram();");
+      line("");
+      line("  private " + readerName + "() { }");
+      line("");
+      unsafeRun();
+      safeRun();
+      program();
+      read();
+      createProgram();
+      line("  private static <T> T required(Option<T> value, String key) {");
+      line("    if (!value.isPresent()) {");
+      line("      throw new NoSuchElementException(\"key not found: \" + key);");
+      line("    }");
+      line("    return value.getOrElseThrow();");
+      line("  }");
+      line("");
+      line("  private static String key(String prefix, String name) {");
+      line("    return prefix.isEmpty() ? name : prefix + \".\" + name;");
+      line("  }");
+      line("}");
+      return out.toString();
+    }
+
+    private void unsafeRun() {
+      line("  public static " + recordName + " unsafeRun(Source source) {");
+      line("    return read(source" + components.stream().map(c -> ", " + c.constant()).collect(Collectors.joining())
+          + ");");
+      line("  }");
+      line("");
+      line("  public static " + recordName + " unsafeRun(Source source, String prefix) {");
+      line("    return read(source" + components.stream()
+          .map(c -> ", key(prefix, " + literal(c.name()) + ")").collect(Collectors.joining()) + ");");
+      line("  }");
+      line("");
+    }
+
+    private void safeRun() {
+      line("  public static Option<" + recordName + "> safeRun(Source source) {");
+      line("    try {");
+      line("      return Option.some(unsafeRun(source));");
+      line("    } catch (RuntimeException e) {");
+      line("      // missing keys and values that cannot be parsed, like PureCFG.safeRun");
+      line("      return Option.none();");
+      line("    }");
+      line("  }");
+      line("");
+    }
+
+    private void program() {
+      line("  public static PureCFG<" + recordName + "> program() {");
+      line("    return program(KEY);");
+      line("  }");
+      line("");
+      line("  public static PureCFG<" + recordName + "> program(String key) {");
+      line("    return key.isEmpty() ? PROGRAM : PureCFG.readConfig(key, PROGRAM);");
+      line("  }");
+      line("");
+    }
+
+    private void read() {
+      String params = components.stream().map(c -> ", String " + c.name() + "Key").collect(Collectors.joining());
+      line("  private static " + recordName + " read(Source source" + params + ") {");
+      line("    return new " + recordName + "(");
+      for (int i = 0; i < components.size(); i++) {
+        Component c = components.get(i);
+        String key = c.name() + "Key";
+        String value;
+        if (c.isNested()) {
+          value = c.getter() + ".unsafeRun(source, " + key + ")";
+        } else if (c.optional()) {
+          value = "required(source." + c.getter() + "(" + key + "), " + key + ")";
+        } else {
+          value = "source." + c.getter() + "(" + key + ")";
+        }
+        line("        " + value + (i < components.size() - 1 ? "," : ");"));
+      }
+      if (components.isEmpty()) {
+        line("        );");
+      }
+      line("  }");
+      line("");
+    }
+
+    /**
+     * All the components are read with {@code PureCFG.product}, and the constructor is called with the
+     * resulting array, without currying the constructor.
+     */
+    private void createProgram() {
+      line("  private static PureCFG<" + recordName + "> createProgram() {");
+      if (components.isEmpty()) {
+        line("    return PureCFG.pure(new " + recordName + "());");
+      } else {
+        line("    return PureCFG.product(List.<PureCFG<?>>of(");
+        for (int i = 0; i < components.size(); i++) {
+          line("        " + programOf(components.get(i)) + (i < components.size() - 1 ? "," : "),"));
+        }
+        line("        values -> new " + recordName + "(");
+        for (int i = 0; i < components.size(); i++) {
+          line("            (" + components.get(i).type() + ") values[" + i + "]"
+              + (i < components.size() - 1 ? "," : "));"));
+        }
+      }
+      line("  }");
+      line("");
+    }
+
+    private static String programOf(Component component) {
+      if (component.isNested()) {
+        return component.reader() + ".program(" + literal(component.name()) + ")";
+      }
+      return "PureCFG." + component.reader() + "(" + literal(component.name()) + ")";
+    }
+
+    private void line(String line) {
+      out.append(line).append('\n');
+    }
+
+    private static String literal(String value) {
+      return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readIterable;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Validation;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@code foldMap} interpreters with the same program compiled with {@link PureCFG#compile()}
+ * and bound to the source with {@link PureCFG#bind(Source)}, and the cost of tracing the provenance of
+ * the keys with {@link CompiledCFG#tracedRun(Source)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompiledCFGBenchmark {
+
+  private PureCFG<Server> program;
+  private CompiledCFG<Server> compiled;
+  private ConfigSnapshot<Server> snapshot;
+  private Source source;
+
+  @Setup
+  public void setUp() {
+    var properties = new Properties();
+    properties.setProperty("server.host", "localhost");
+    properties.setProperty("server.port", "8080");
+    properties.setProperty("server.active", "true");
+    for (int i = 0; i < 10; i++) {
+      properties.setProperty("server.users." + i + ".name", "user" + i);
+      properties.setProperty("server.users." + i + ".pass", "pass" + i);
+    }
+
+    var user = mapN(readString("name"), readString("pass")).apply(User::new);
+    program = readConfig("server",
+        mapN(readString("host"), readInt("port"), readBoolean("active"), readIterable("users", user))
+          .apply(Server::new));
+    compiled = program.compile();
+    source = Source.from(properties);
+    snapshot = compiled.bind(source);
+  }
+
+  @Benchmark
+  public Server unsafeRun() {
+    return program.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server compiledUnsafeRun() {
+    return compiled.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server snapshotUnsafeRun() {
+    return snapshot.unsafeRun();
+  }
+
+  @Benchmark
+  public Option<Server> safeRun() {
+    return program.safeRun(source);
+  }
+
+  @Benchmark
+  public Option<Server> compiledSafeRun() {
+    return compiled.safeRun(source);
+  }
+
+  @Benchmark
+  public Provenance<Server> compiledTracedRun() {
+    return compiled.tracedRun(source);
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Server> validatedRun() {
+    return program.validatedRun(source);
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Server> compiledValidatedRun() {
+    return compiled.validatedRun(source);
+  }
+
+  public record Server(String host, int port, boolean active, Iterable<User> users) {
+  }
+
+  public record User(String name, String pass) {
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup reading a big toml file, parsing it every time compared with loading the values
+ * from {@link ConfigCache} when the file doesn't change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigCacheBenchmark {
+
+  private static final int SECTIONS = 500;
+
+  private Path folder;
+  private Path file;
+  private Path cache;
+  private PureCFG<Server> program;
+
+  @Setup
+  public void setUp() throws IOException {
+    folder = Files.createTempDirectory("purecfg");
+    file = folder.resolve("config.toml");
+    cache = folder.resolve("config.cache");
+
+    StringBuilder toml = new StringBuilder();
+    for (int i = 0; i < SECTIONS; i++) {
+      toml.append("[section").append(i).append("]\n")
+        .append("  host = \"host").append(i).append("\"\n")
+        .append("  port = ").append(8000 + i).append('\n')
+        .append("  active = true\n");
+    }
+    toml.append("[server]\n  host = \"localhost\"\n  port = 8080\n  active = true\n");
+    Files.writeString(file, toml);
+
+    program = readConfig("server",
+        mapN(readString("host"), readInt("port"), readBoolean("active")).apply(Server::new));
+    ConfigCache.load(cache, program, List.of(file), () -> Source.fromToml(file));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(cache);
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(folder);
+  }
+
+  @Benchmark
+  public Server parse() {
+    return program.unsafeRun(Source.fromToml(file));
+  }
+
+  @Benchmark
+  public Server cached() {
+    return program.unsafeRun(ConfigCache.load(cache, program, List.of(file), () -> Source.fromToml(file)));
+  }
+
+  public record Server(String host, int port, boolean active) {
+  }
+}
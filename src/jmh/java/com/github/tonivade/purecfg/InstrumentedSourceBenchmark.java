@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link Source#instrumented(Source, MetricsSink)} with {@link LookupMetrics},
+ * for single lookups and for a whole program, also with many threads reading the same keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InstrumentedSourceBenchmark {
+
+  private Source plain;
+  private Source instrumented;
+  private PureCFG<Server> program;
+
+  @Setup
+  public void setUp() {
+    var properties = new Properties();
+    properties.setProperty("server.host", "localhost");
+    properties.setProperty("server.port", "8080");
+    properties.setProperty("server.active", "true");
+
+    plain = Source.from(properties);
+    instrumented = Source.instrumented(plain, new LookupMetrics());
+    program = readConfig("server",
+        mapN(readString("host"), readInt("port"), readBoolean("active")).apply(Server::new));
+  }
+
+  @Benchmark
+  public Option<String> plainLookup() {
+    return plain.getString("server.host");
+  }
+
+  @Benchmark
+  public Option<String> instrumentedLookup() {
+    return instrumented.getString("server.host");
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Option<String> instrumentedLookupContended() {
+    return instrumented.getString("server.host");
+  }
+
+  @Benchmark
+  public Server plainUnsafeRun() {
+    return program.unsafeRun(plain);
+  }
+
+  @Benchmark
+  public Server instrumentedUnsafeRun() {
+    return program.unsafeRun(instrumented);
+  }
+
+  public record Server(String host, int port, boolean active) {
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.pure;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readIterable;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomlj.Toml;
+
+/**
+ * <p>Baseline of the interpreters for every source and shape of config:</p>
+ *
+ * <ul>
+ *   <li>{@code flat}: {@code size} keys at the top level.</li>
+ *   <li>{@code nested}: {@code size} keys nested 5 levels deep.</li>
+ *   <li>{@code list}: a list of {@code size} elements with two keys each.</li>
+ * </ul>
+ *
+ * <p>The gc profiler is enabled in the build, so the results include the allocation rate.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InterpreterBenchmark {
+
+  private static final String NESTED = "l0.l1.l2.l3.l4";
+
+  @Param({ "properties", "toml", "args" })
+  public String format;
+
+  @Param({ "flat", "nested", "list" })
+  public String shape;
+
+  @Param({ "10", "1000" })
+  public int size;
+
+  private PureCFG<Integer> program;
+  private Source source;
+
+  @Setup
+  public void setUp() {
+    program = switch (shape) {
+      case "flat" -> sumOf(size);
+      case "nested" ->
+          readConfig("l0", readConfig("l1", readConfig("l2", readConfig("l3", readConfig("l4", sumOf(size))))));
+      case "list" ->
+          readIterable("list", mapN(readString("name"), readInt("value")).<Integer>apply((name, value) -> value))
+            .map(InterpreterBenchmark::sum);
+      default -> throw new IllegalArgumentException(shape);
+    };
+    source = switch (format) {
+      case "properties" -> Source.from(properties());
+      case "toml" -> Source.from(Toml.parse(toml()));
+      case "args" -> Source.fromArgs(args());
+      default -> throw new IllegalArgumentException(format);
+    };
+  }
+
+  @Benchmark
+  public Integer unsafeRun() {
+    return program.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Option<Integer> safeRun() {
+    return program.safeRun(source);
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Integer> validatedRun() {
+    return program.validatedRun(source);
+  }
+
+  @Benchmark
+  public String describe() {
+    return program.describe();
+  }
+
+  private static PureCFG<Integer> sumOf(int size) {
+    PureCFG<Integer> result = pure(0);
+    for (int i = 0; i < size; i++) {
+      result = mapN(result, readInt("key" + i), Integer::sum);
+    }
+    return result;
+  }
+
+  private static Integer sum(Iterable<Integer> values) {
+    int result = 0;
+    for (Integer value : values) {
+      result += value;
+    }
+    return result;
+  }
+
+  private List<String[]> entries() {
+    List<String[]> entries = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      switch (shape) {
+        case "flat" -> entries.add(new String[] { "key" + i, String.valueOf(i) });
+        case "nested" -> entries.add(new String[] { NESTED + ".key" + i, String.valueOf(i) });
+        default -> {
+          entries.add(new String[] { "list." + i + ".name", "name" + i });
+          entries.add(new String[] { "list." + i + ".value", String.valueOf(i) });
+        }
+      }
+    }
+    return entries;
+  }
+
+  private Properties properties() {
+    var properties = new Properties();
+    for (String[] entry : entries()) {
+      properties.setProperty(entry[0], entry[1]);
+    }
+    return properties;
+  }
+
+  private String[] args() {
+    List<String> args = new ArrayList<>();
+    for (String[] entry : entries()) {
+      args.add("-" + entry[0]);
+      args.add(entry[1]);
+    }
+    return args.toArray(String[]::new);
+  }
+
+  private String toml() {
+    var toml = new StringBuilder();
+    if (shape.equals("nested")) {
+      toml.append('[').append(NESTED).append("]\n");
+    }
+    for (int i = 0; i < size; i++) {
+      switch (shape) {
+        case "flat", "nested" -> toml.append("key").append(i).append(" = ").append(i).append('\n');
+        default -> toml.append("[[list]]\n")
+            .append("name = \"name").append(i).append("\"\n")
+            .append("value = ").append(i).append('\n');
+      }
+    }
+    return toml.toString();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomlj.Toml;
+
+/**
+ * Lookups in a config nested 5 levels deep. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} to see the bytes allocated per operation by the key handling. The compiled program resolves
+ * the paths once and reuses them in every run, the interpreted program and the toml source resolve them in the first
+ * run and keep them in a table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KeyPathBenchmark {
+
+  private static final String KEY = "a.b.c.d.e.host";
+
+  @Param({ "properties", "toml" })
+  public String format;
+
+  private Source source;
+  private KeyPath path;
+  private PureCFG<Leaf> program;
+  private CompiledCFG<Leaf> compiled;
+
+  @Setup
+  public void setUp() {
+    if (format.equals("toml")) {
+      source = Source.from(Toml.parse(
+          """
+          [a.b.c.d.e]
+            host = "localhost"
+            port = 8080
+          """));
+    } else {
+      var properties = new Properties();
+      properties.setProperty("a.b.c.d.e.host", "localhost");
+      properties.setProperty("a.b.c.d.e.port", "8080");
+      source = Source.from(properties);
+    }
+    path = KeyPath.of(KEY);
+    PureCFG<Leaf> leaf = mapN(readString("host"), readInt("port")).apply(Leaf::new);
+    program = readConfig("a", readConfig("b", readConfig("c", readConfig("d", readConfig("e", leaf)))));
+    compiled = program.compile();
+  }
+
+  @Benchmark
+  public Option<String> stringKey() {
+    return source.getString(KEY);
+  }
+
+  @Benchmark
+  public Option<String> keyPath() {
+    return source.getString(path);
+  }
+
+  @Benchmark
+  public Option<String> resolveKeyPath() {
+    return source.getString(KeyPath.root().resolve("a").resolve("b").resolve("c").resolve("d").resolve("e").resolve("host"));
+  }
+
+  @Benchmark
+  public Leaf unsafeRun() {
+    return program.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Leaf compiledUnsafeRun() {
+    return compiled.unsafeRun(source);
+  }
+
+  public record Leaf(String host, int port) {
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readIterable;
+import static com.github.tonivade.purecfg.PureCFG.readParallelIterable;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Validation;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads a big list of complex elements one by one and with {@link PureCFG#readParallelIterable(String, PureCFG)},
+ * running the program inside a fork-join pool with the given parallelism to show how it scales with the
+ * number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParallelIterableBenchmark {
+
+  @Param({ "1", "2", "4", "8" })
+  private int parallelism;
+
+  @Param({ "10000", "200000" })
+  private int size;
+
+  private ForkJoinPool pool;
+  private Source source;
+  private PureCFG<Iterable<Entry>> sequential;
+  private PureCFG<Iterable<Entry>> parallel;
+  private CompiledCFG<Iterable<Entry>> compiledSequential;
+  private CompiledCFG<Iterable<Entry>> compiledParallel;
+
+  @Setup
+  public void setUp() {
+    var properties = new Properties();
+    for (int i = 0; i < size; i++) {
+      properties.setProperty("entries." + i + ".name", "name" + i);
+      properties.setProperty("entries." + i + ".host", "host" + i);
+      properties.setProperty("entries." + i + ".port", String.valueOf(i));
+      properties.setProperty("entries." + i + ".active", String.valueOf(i % 2 == 0));
+    }
+    source = Source.from(properties);
+
+    var entry = mapN(readString("name"), readString("host"), readInt("port"), readBoolean("active"))
+        .apply(Entry::new);
+    sequential = readIterable("entries", entry);
+    parallel = readParallelIterable("entries", entry);
+    compiledSequential = sequential.compile();
+    compiledParallel = parallel.compile();
+    pool = new ForkJoinPool(parallelism);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Iterable<Entry>> sequential() {
+    return pool.submit(() -> sequential.validatedRun(source)).join();
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Iterable<Entry>> parallel() {
+    return pool.submit(() -> parallel.validatedRun(source)).join();
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Iterable<Entry>> compiledSequential() {
+    return pool.submit(() -> compiledSequential.validatedRun(source)).join();
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Iterable<Entry>> compiledParallel() {
+    return pool.submit(() -> compiledParallel.validatedRun(source)).join();
+  }
+
+  public record Entry(String name, String host, int port, boolean active) {
+  }
+}
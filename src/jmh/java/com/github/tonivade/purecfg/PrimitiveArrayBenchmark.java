@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.readIntArray;
+import static com.github.tonivade.purecfg.PureCFG.readIterable;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomlj.Toml;
+
+/**
+ * Compares a list of numbers read with {@link PureCFG#readIterable(String, Class)} and with
+ * {@link PureCFG#readIntArray(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PrimitiveArrayBenchmark {
+
+  @Param({ "properties", "toml" })
+  private String format;
+
+  @Param({ "1000" })
+  private int size;
+
+  private Source source;
+  private PureCFG<Iterable<Integer>> iterable;
+  private PureCFG<int[]> array;
+
+  @Setup
+  public void setUp() {
+    if (format.equals("toml")) {
+      var toml = new StringBuilder("buckets = [");
+      for (int i = 0; i < size; i++) {
+        toml.append(i > 0 ? ", " : "").append(i);
+      }
+      source = Source.from(Toml.parse(toml.append("]\n").toString()));
+    } else {
+      var properties = new Properties();
+      for (int i = 0; i < size; i++) {
+        properties.setProperty("buckets." + i, String.valueOf(i));
+      }
+      source = Source.from(properties);
+    }
+    iterable = readIterable("buckets", Integer.class);
+    array = readIntArray("buckets");
+  }
+
+  @Benchmark
+  public Iterable<Integer> iterable() {
+    return iterable.unsafeRun(source);
+  }
+
+  @Benchmark
+  public int[] array() {
+    return array.unsafeRun(source);
+  }
+}
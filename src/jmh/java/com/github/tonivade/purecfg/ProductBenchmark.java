@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.product;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import com.github.tonivade.purefun.type.Validation;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a record read with the curried functions of {@link PureCFG#mapN} with the same record read
+ * with {@link PureCFG#product(List, com.github.tonivade.purefun.core.Function1)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductBenchmark {
+
+  private PureCFG<Server> curried;
+  private PureCFG<Server> product;
+  private CompiledCFG<Server> compiledCurried;
+  private CompiledCFG<Server> compiledProduct;
+  private Source source;
+
+  @Setup
+  public void setUp() {
+    var properties = new Properties();
+    properties.setProperty("server.name", "api");
+    properties.setProperty("server.host", "localhost");
+    properties.setProperty("server.port", "8080");
+    properties.setProperty("server.threads", "16");
+    properties.setProperty("server.active", "true");
+
+    curried = readConfig("server",
+        mapN(readString("name"), readString("host"), readInt("port"), readInt("threads"), readBoolean("active"))
+          .apply(Server::new));
+    product = readConfig("server",
+        product(List.of(readString("name"), readString("host"), readInt("port"), readInt("threads"), readBoolean("active")),
+          values -> new Server((String) values[0], (String) values[1], (Integer) values[2], (Integer) values[3],
+              (Boolean) values[4])));
+    compiledCurried = curried.compile();
+    compiledProduct = product.compile();
+    source = Source.from(properties);
+  }
+
+  @Benchmark
+  public Server curriedUnsafeRun() {
+    return curried.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server productUnsafeRun() {
+    return product.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Server> curriedValidatedRun() {
+    return curried.validatedRun(source);
+  }
+
+  @Benchmark
+  public Validation<Validation.Result<String>, Server> productValidatedRun() {
+    return product.validatedRun(source);
+  }
+
+  @Benchmark
+  public Server compiledCurriedUnsafeRun() {
+    return compiledCurried.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server compiledProductUnsafeRun() {
+    return compiledProduct.unsafeRun(source);
+  }
+
+  public record Server(String name, String host, int port, int threads, boolean active) {
+  }
+}
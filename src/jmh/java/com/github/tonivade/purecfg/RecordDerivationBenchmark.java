@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readIterable;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a program derived with {@link PureCFG#forRecord(Class)} with the same program written by hand
+ * with {@code mapN}, and the cost of deriving the program again once it's cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecordDerivationBenchmark {
+
+  private PureCFG<Server> handWritten;
+  private PureCFG<Server> derived;
+  private CompiledCFG<Server> compiledHandWritten;
+  private CompiledCFG<Server> compiledDerived;
+  private Source source;
+
+  @Setup
+  public void setUp() {
+    var properties = new Properties();
+    properties.setProperty("server.host", "localhost");
+    properties.setProperty("server.port", "8080");
+    properties.setProperty("server.active", "true");
+    for (int i = 0; i < 10; i++) {
+      properties.setProperty("server.users." + i + ".name", "user" + i);
+      properties.setProperty("server.users." + i + ".pass", "pass" + i);
+    }
+
+    var user = mapN(readString("name"), readString("pass")).apply(User::new);
+    handWritten = readConfig("server",
+        mapN(readString("host"), readInt("port"), readBoolean("active"), readIterable("users", user))
+          .apply(Server::new));
+    derived = readConfig("server", PureCFG.forRecord(Server.class));
+    compiledHandWritten = handWritten.compile();
+    compiledDerived = derived.compile();
+    source = Source.from(properties);
+  }
+
+  @Benchmark
+  public PureCFG<Server> derive() {
+    return PureCFG.forRecord(Server.class);
+  }
+
+  @Benchmark
+  public Server handWrittenUnsafeRun() {
+    return handWritten.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server derivedUnsafeRun() {
+    return derived.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server compiledHandWrittenUnsafeRun() {
+    return compiledHandWritten.unsafeRun(source);
+  }
+
+  @Benchmark
+  public Server compiledDerivedUnsafeRun() {
+    return compiledDerived.unsafeRun(source);
+  }
+
+  public record Server(String host, int port, boolean active, Iterable<User> users) {
+  }
+
+  public record User(String name, String pass) {
+  }
+}
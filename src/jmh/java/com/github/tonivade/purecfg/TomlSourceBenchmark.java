@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Try;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomlj.Toml;
+import org.tomlj.TomlArray;
+import org.tomlj.TomlParseResult;
+import org.tomlj.TomlTable;
+
+/**
+ * Missing keys and keys with a different type in {@link Source.TomlSource}, compared with
+ * the previous implementation that relied on catching the exceptions thrown during the lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TomlSourceBenchmark {
+
+  private TomlParseResult toml;
+  private Source source;
+
+  @Setup
+  public void setUp() {
+    toml = Toml.parse(
+        """
+        [server]
+          host = "localhost"
+          port = 8080
+        """);
+    source = Source.from(toml);
+  }
+
+  @Benchmark
+  public Option<String> missingKey() {
+    return source.getString("server.missing.host");
+  }
+
+  @Benchmark
+  public Option<String> missingKeyWithTry() {
+    return Try.of(() -> TomlSourceBenchmark.<String>legacyReadValue(toml, "server.missing.host")).toOption();
+  }
+
+  @Benchmark
+  public Option<Integer> wrongType() {
+    return source.getInteger("server.host");
+  }
+
+  @Benchmark
+  public Option<Integer> wrongTypeWithTry() {
+    return Try.of(() -> TomlSourceBenchmark.<Long>legacyReadValue(toml, "server.host").intValue()).toOption();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T legacyReadValue(TomlParseResult toml, String key) {
+    Object current = toml;
+    for (String item : key.split("\\.")) {
+      if (current instanceof TomlTable table) {
+        current = table.get(item);
+      } else if (current instanceof TomlArray array) {
+        current = array.get(Integer.parseInt(item));
+      }
+    }
+    return (T) current;
+  }
+}
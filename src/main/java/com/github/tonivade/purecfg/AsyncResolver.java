@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Resolves the keys of a program from an {@link AsyncSource}, every key in its own virtual thread, but
+ * with a limit of concurrent lookups so the backing store is not flooded with requests. A lookup that fails
+ * doesn't stop the rest, the error is reported when the key is read, see {@link PrefetchedSource}.
+ */
+final class AsyncResolver {
+
+  private static final ThreadFactory THREADS = Thread.ofVirtual().name("purecfg-async-", 0).factory();
+  private static final Executor EXECUTOR = command -> THREADS.newThread(command).start();
+
+  private AsyncResolver() { }
+
+  /**
+   * @param source the async source
+   * @param keys keys to resolve
+   * @param maxConcurrency max number of lookups at the same time
+   * @return a future completed with a source with all the values already resolved
+   */
+  static CompletableFuture<Source> resolve(AsyncSource source, Set<String> keys, int maxConcurrency) {
+    checkNonNull(source);
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("max concurrency must be positive: " + maxConcurrency);
+    }
+    Semaphore permits = new Semaphore(maxConcurrency);
+    Map<String, String> values = new ConcurrentHashMap<>();
+    Map<String, String> failures = new ConcurrentHashMap<>();
+    List<CompletableFuture<Void>> lookups = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      lookups.add(CompletableFuture.runAsync(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          Option<String> value = source.getString(key).join();
+          if (value.isPresent()) {
+            values.put(key, value.getOrElseThrow());
+          }
+        } catch (RuntimeException e) {
+          // the error is reported for this key, the rest of the keys are still resolved
+          failures.put(key, String.valueOf(cause(e).getMessage()));
+        } finally {
+          permits.release();
+        }
+      }, EXECUTOR));
+    }
+    return CompletableFuture.allOf(lookups.toArray(CompletableFuture<?>[]::new))
+        .thenApply(ignore -> PrefetchedSource.of(source.source(), keys, values, failures));
+  }
+
+  private static Throwable cause(RuntimeException error) {
+    Throwable cause = error.getCause();
+    return error instanceof CompletionException && cause != null ? cause : error;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Source where every key is resolved independently and each lookup can take a long time, like a secrets
+ * service or a database table. Used by {@link PureCFG#asyncRun(AsyncSource)}.</p>
+ *
+ * <p>All the keys known before running the program are resolved concurrently, every lookup is started from
+ * its own virtual thread, so implementations can block. The keys that are only known while running the
+ * program, like the elements of lists, are read from {@link #source()}.</p>
+ */
+public interface AsyncSource {
+
+  /**
+   * Max number of lookups at the same time used by {@link PureCFG#asyncRun(AsyncSource)}.
+   */
+  int DEFAULT_CONCURRENCY = 16;
+
+  /**
+   * @param key full key
+   * @return a future completed with the value, or none if the key doesn't exist
+   */
+  CompletableFuture<Option<String>> getString(String key);
+
+  /**
+   * @return the source used to read the keys not known before running the program
+   */
+  Source source();
+
+  /**
+   * Resolves every key calling {@link Source#getString(String)} of the given source, so every blocking
+   * call is executed in its own virtual thread.
+   *
+   * @param source the source of the values
+   * @return the async source
+   */
+  static AsyncSource from(Source source) {
+    checkNonNull(source);
+    return new AsyncSource() {
+      @Override
+      public CompletableFuture<Option<String>> getString(String key) {
+        return CompletableFuture.completedFuture(source.getString(key));
+      }
+
+      @Override
+      public Source source() {
+        return source;
+      }
+
+      @Override
+      public String toString() {
+        return "AsyncSource(" + source + ")";
+      }
+    };
+  }
+}
@@ -0,0 +1,705 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.data.ImmutableList;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Validation;
+import com.github.tonivade.purefun.type.Validation.Result;
+import com.github.tonivade.purefun.typeclasses.Applicative;
+import com.github.tonivade.purefun.typeclasses.FunctionK;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * <p>A {@link PureCFG} program flattened into a list of key reads and a single combining function.</p>
+ *
+ * <p>The applicative tree is walked only once, when the program is compiled, nested configs are inlined
+ * with their full keys, so every run is just a loop over the reads followed by the combining function.
+ * Instances are immutable and can be executed many times against different sources.</p>
+ *
+ * @param <T> type of the resulting configuration
+ */
+public final class CompiledCFG<T> {
+
+  private final PureCFG<T> program;
+  private final Step[] steps;
+  private final KeyPath[] keys;
+  private final int[] errorOrder;
+  private final Function<Object[], T> combine;
+  private final RequiredKeys requiredKeys;
+
+  private CompiledCFG(PureCFG<T> program, List<Step> steps, Plan<T> plan) {
+    this.program = checkNonNull(program);
+    this.steps = steps.toArray(Step[]::new);
+    this.keys = steps.stream().map(Step::key).toArray(KeyPath[]::new);
+    this.errorOrder = plan.order;
+    this.combine = plan.combine;
+    var keys = RequiredKeys.builder();
+    collect(KeyPath.root(), keys);
+    this.requiredKeys = keys.build();
+  }
+
+  public PureCFG<T> program() {
+    return program;
+  }
+
+  public T unsafeRun(Source source) {
+    Object result = evaluate(PrefetchedSource.prefetch(source, requiredKeys), KeyPath.root());
+    return cast(orElseThrow(result));
+  }
+
+  public Option<T> safeRun(Source source) {
+    Object result = evaluate(PrefetchedSource.prefetch(source, requiredKeys), KeyPath.root());
+    if (result instanceof Failure) {
+      return Option.none();
+    }
+    return Option.some(cast(result));
+  }
+
+  public Validation<Validation.Result<String>, T> validatedRun(Source source) {
+    Object result = evaluate(PrefetchedSource.prefetch(source, requiredKeys), KeyPath.root());
+    if (result instanceof Failure failure) {
+      return Validation.invalid(toResult(failure.errors()));
+    }
+    return Validation.valid(cast(result));
+  }
+
+  /**
+   * Same as {@link #safeRun(Source)}, but also records where the value of every key comes from,
+   * see {@link Provenance}.
+   *
+   * @param source the source of the values
+   * @return the configuration and the provenance of every key
+   */
+  public Provenance<T> tracedRun(Source source) {
+    Source prefetched = PrefetchedSource.prefetch(source, requiredKeys);
+    LayeredSource layered = undecorated(source) instanceof LayeredSource layers ? layers : null;
+    boolean strings = prefetched.parsesStrings();
+    Object[] values = new Object[steps.length];
+    boolean[] found = new boolean[steps.length];
+    int[] origins = new int[steps.length];
+    Object[] raws = new Object[steps.length];
+    long[] nanos = new long[steps.length];
+    for (int i = 0; i < steps.length; i++) {
+      long start = System.nanoTime();
+      values[i] = trace(steps[i], prefetched, strings, raws, i);
+      nanos[i] = System.nanoTime() - start;
+      found[i] = !(values[i] instanceof Failure);
+      origins[i] = !found[i] ? Provenance.NO_ORIGIN : layered != null ? layered.layer(keys[i].toString()) : 0;
+    }
+    Option<T> value = errors(values).isEmpty() ? Option.some(combine(values)) : Option.none();
+    return new Provenance<>(value, keys, layered != null ? layered.layers() : List.of(source),
+        found, origins, raws, nanos);
+  }
+
+  /**
+   * @return the keys read by the program
+   */
+  public RequiredKeys requiredKeys() {
+    return requiredKeys;
+  }
+
+  /**
+   * Reads and parses all the values of the program from the source only once, after that the snapshot
+   * can be executed many times without accessing the source again.
+   *
+   * @param source the source of the values
+   * @return a snapshot of the values read by the program
+   */
+  public ConfigSnapshot<T> bind(Source source) {
+    Object[] values = read(PrefetchedSource.prefetch(source, requiredKeys), KeyPath.root());
+    return new ConfigSnapshot<>(this, values, errors(values));
+  }
+
+  static <T> CompiledCFG<T> compile(PureCFG<T> program) {
+    List<Step> steps = new ArrayList<>();
+    Plan<T> plan = Plan.narrowK(program.foldMap(new Compiler(KeyPath.root(), steps), PlanApplicative.INSTANCE));
+    return new CompiledCFG<>(program, steps, plan);
+  }
+
+  /**
+   * Returns the combined value, or a {@link Failure} with all the missing keys in the same order
+   * {@code validatedRun} would report them.
+   */
+  private Object evaluate(Source source, KeyPath prefix) {
+    Object[] values = read(source, prefix);
+    List<String> errors = errors(values);
+    return errors.isEmpty() ? combine(values) : new Failure(errors);
+  }
+
+  /**
+   * One value per slot, in the same order of the steps.
+   */
+  private Object[] read(Source source, KeyPath prefix) {
+    Object[] values = new Object[steps.length];
+    for (int i = 0; i < steps.length; i++) {
+      values[i] = read(steps[i], source, prefix);
+    }
+    return values;
+  }
+
+  /**
+   * A value that cannot be parsed is a failure with the same message used by {@link PureCFG#validatedRun(Source)},
+   * instead of throwing an exception, so compiled and interpreted programs report the same errors.
+   */
+  private static Object read(Step step, Source source, KeyPath prefix) {
+    try {
+      return step.read(source, prefix);
+    } catch (RuntimeException e) {
+      return Failure.invalid(prefix.resolve(step.key()), e);
+    }
+  }
+
+  private List<String> errors(Object[] values) {
+    List<String> errors = List.of();
+    for (int slot : errorOrder) {
+      if (values[slot] instanceof Failure failure) {
+        if (errors.isEmpty()) {
+          errors = new ArrayList<>();
+        }
+        errors.addAll(failure.errors());
+      }
+    }
+    return errors;
+  }
+
+  T combine(Object[] values) {
+    return combine.apply(values);
+  }
+
+  private void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+    for (Step step : steps) {
+      step.collect(prefix, keys);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T cast(Object value) {
+    return (T) value;
+  }
+
+  /**
+   * Built in a single step, concat copies all the previous errors every time.
+   */
+  static Result<String> toResult(List<String> errors) {
+    return Result.of(errors.get(0), errors.subList(1, errors.size()).toArray(String[]::new));
+  }
+
+  /**
+   * Same as {@link #read(Step, Source, KeyPath)}, but the text of single values is kept in {@code raws}
+   * without a second lookup: if the source parses strings, the value is read as a string and then parsed,
+   * otherwise it's the value read converted to a string. Lists and arrays don't have text.
+   */
+  private static Object trace(Step step, Source source, boolean strings, Object[] raws, int slot) {
+    raws[slot] = Provenance.NO_VALUE;
+    if (!(step instanceof ScalarStep scalar)) {
+      return read(step, source, KeyPath.root());
+    }
+    KeyPath key = scalar.key();
+    try {
+      if (strings) {
+        Option<String> text = source.getString(key);
+        Object value = found(key, text.map(scalar::parse));
+        if (!(value instanceof Failure)) {
+          raws[slot] = text.getOrElseThrow();
+        }
+        return value;
+      }
+      Object value = found(key, scalar.typed(source, key));
+      if (!(value instanceof Failure)) {
+        raws[slot] = String.valueOf(value);
+      }
+      return value;
+    } catch (RuntimeException e) {
+      return Failure.invalid(key, e);
+    }
+  }
+
+  /**
+   * The source decorated by instrumented, reloadable or prefetched sources, so the origin of the keys
+   * is found also when a {@link LayeredSource} is decorated.
+   */
+  private static Source undecorated(Source source) {
+    return switch (source) {
+      case InstrumentedSource instrumented -> undecorated(instrumented.source());
+      case ReloadableSource reloadable -> undecorated(reloadable.snapshot());
+      case PrefetchedSource prefetched -> undecorated(prefetched.source());
+      default -> source;
+    };
+  }
+
+  private static Object found(Object key, Option<?> value) {
+    return value.<Object>fold(() -> Failure.notFound(key), x -> x);
+  }
+
+  private record Failure(List<String> errors) {
+
+    static Failure notFound(Object key) {
+      return new Failure(List.of("key not found: " + key));
+    }
+
+    /**
+     * Same message as the errors of {@link PureCFG#validatedRun(Source)} for values that cannot be parsed.
+     */
+    static Failure invalid(Object key, RuntimeException error) {
+      return new Failure(List.of("invalid value (" + error.getMessage() + "): " + key));
+    }
+  }
+
+  private sealed interface Step {
+
+    KeyPath key();
+
+    Object read(Source source, KeyPath prefix);
+
+    default void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+      keys.add(prefix.resolve(key()));
+    }
+  }
+
+  /**
+   * A single value, read with the typed method of the source. The parser has the same rules of the default
+   * methods of {@link Source}, it's used by {@link #tracedRun(Source)} with sources that
+   * {@link Source#parsesStrings()}.
+   */
+  private sealed interface ScalarStep extends Step {
+
+    Option<?> typed(Source source, KeyPath path);
+
+    Object parse(String value);
+
+    @Override
+    default Object read(Source source, KeyPath prefix) {
+      KeyPath path = prefix.resolve(key());
+      return found(path, typed(source, path));
+    }
+  }
+
+  private record StringStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getString(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return value;
+    }
+  }
+
+  private record IntStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getInteger(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return Integer.parseInt(value);
+    }
+  }
+
+  private record BooleanStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getBoolean(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return Boolean.parseBoolean(value);
+    }
+  }
+
+  private record LongStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getLong(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return Long.parseLong(value);
+    }
+  }
+
+  private record DoubleStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getDouble(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return Double.parseDouble(value);
+    }
+  }
+
+  private record DurationStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getDuration(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return ValueParser.parseDuration(value);
+    }
+  }
+
+  private record ByteSizeStep(KeyPath key) implements ScalarStep {
+
+    @Override
+    public Option<?> typed(Source source, KeyPath path) {
+      return source.getByteSize(path);
+    }
+
+    @Override
+    public Object parse(String value) {
+      return ValueParser.parseByteSize(value);
+    }
+  }
+
+  /**
+   * Arrays of numbers, read directly by the source. An element missing or that cannot be parsed
+   * is reported as a failure of the whole array, see {@link #read(Step, Source, KeyPath)}.
+   */
+  private sealed interface ArrayStep extends Step {
+
+    @Override
+    default void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+      keys.add(prefix.resolve(key()).resolve(RequiredKeys.ANY_INDEX));
+    }
+  }
+
+  private record IntArrayStep(KeyPath key) implements ArrayStep {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      return source.getIntArray(prefix.resolve(key).toString());
+    }
+  }
+
+  private record LongArrayStep(KeyPath key) implements ArrayStep {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      return source.getLongArray(prefix.resolve(key).toString());
+    }
+  }
+
+  private record DoubleArrayStep(KeyPath key) implements ArrayStep {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      return source.getDoubleArray(prefix.resolve(key).toString());
+    }
+  }
+
+  private record PrimitiveIterableStep(KeyPath key, Class<?> type) implements Step {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      return readAll(source.getIterable(prefix.resolve(key).toString(), type),
+          element -> readElement(source, element));
+    }
+
+    @Override
+    public void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+      keys.add(prefix.resolve(key).resolve(RequiredKeys.ANY_INDEX));
+    }
+  }
+
+  private record IterableStep(KeyPath key, CompiledCFG<?> item, boolean parallel) implements Step {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      Iterable<? extends DSL<?>> elements = source.getIterable(prefix.resolve(key).toString(), item.program);
+      Function<DSL<?>, Object> reader = element -> element instanceof DSL.ReadConfig<?> config
+          ? item.evaluate(source, KeyPath.of(config.key())) : readElement(source, element);
+      return parallel ? readAllParallel(elements, reader) : readAll(elements, reader);
+    }
+
+    @Override
+    public void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+      item.collect(prefix.resolve(key).resolve(RequiredKeys.ANY_INDEX), keys);
+    }
+  }
+
+  private record LazyIterableStep(KeyPath key, CompiledCFG<?> item) implements Step {
+
+    @Override
+    public Object read(Source source, KeyPath prefix) {
+      Iterable<? extends DSL<?>> elements = source.getIterable(prefix.resolve(key).toString(), item.program);
+      return new LazyList<DSL<?>, Object>(elements, element -> orElseThrow(element instanceof DSL.ReadConfig<?> config
+          ? item.evaluate(source, KeyPath.of(config.key())) : readElement(source, element)));
+    }
+
+    @Override
+    public void collect(KeyPath prefix, RequiredKeys.Builder keys) {
+      item.collect(prefix.resolve(key).resolve(RequiredKeys.ANY_INDEX), keys);
+    }
+  }
+
+  private static Object orElseThrow(Object value) {
+    if (value instanceof Failure failure) {
+      throw new NoSuchElementException(failure.errors().get(0));
+    }
+    return value;
+  }
+
+  private static Object readAll(Iterable<? extends DSL<?>> elements, Function<DSL<?>, Object> reader) {
+    List<Object> values = new ArrayList<>();
+    for (DSL<?> element : elements) {
+      values.add(reader.apply(element));
+    }
+    return combineAll(values);
+  }
+
+  private static Object combineAll(List<Object> values) {
+    List<Object> result = new ArrayList<>(values.size());
+    List<String> errors = List.of();
+    for (Object value : values) {
+      if (value instanceof Failure failure) {
+        if (errors.isEmpty()) {
+          errors = new ArrayList<>();
+        }
+        errors.addAll(failure.errors());
+      } else {
+        result.add(value);
+      }
+    }
+    return errors.isEmpty() ? ImmutableList.from(result) : new Failure(errors);
+  }
+
+  /**
+   * Reads the elements in the current fork-join pool, the results are collected in the original
+   * order, so the errors are reported in the same order than {@link #readAll(Iterable, Function)}.
+   */
+  private static Object readAllParallel(Iterable<? extends DSL<?>> elements, Function<DSL<?>, Object> reader) {
+    List<DSL<?>> list = new ArrayList<>();
+    elements.forEach(list::add);
+    return combineAll(list.parallelStream().map(reader).toList());
+  }
+
+  private static Object readElement(Source source, DSL<?> element) {
+    try {
+      return switch (element) {
+        case DSL.Pure<?> pure -> pure.get();
+        case DSL.ReadString read -> found(read.key(), source.getString(read.key()));
+        case DSL.ReadInt read -> found(read.key(), source.getInteger(read.key()));
+        case DSL.ReadBoolean read -> found(read.key(), source.getBoolean(read.key()));
+        case DSL.ReadLong read -> found(read.key(), source.getLong(read.key()));
+        case DSL.ReadDouble read -> found(read.key(), source.getDouble(read.key()));
+        case DSL.ReadDuration read -> found(read.key(), source.getDuration(read.key()));
+        default -> throw new UnsupportedOperationException("not supported as list element: " + element);
+      };
+    } catch (RuntimeException e) {
+      // every element is reported with its own key, like the interpreters do
+      return Failure.invalid(element.key(), e);
+    }
+  }
+
+  /**
+   * Result of compiling a program: the function that builds the value from the slots
+   * and the order in which the errors of each slot have to be reported.
+   */
+  private static final class Plan<T> implements Kind<Plan<?>, T> {
+
+    private static final int[] NONE = new int[0];
+
+    private final Function<Object[], T> combine;
+    private final int[] order;
+
+    private Plan(Function<Object[], T> combine, int[] order) {
+      this.combine = checkNonNull(combine);
+      this.order = checkNonNull(order);
+    }
+
+    static <T> Plan<T> pure(T value) {
+      return new Plan<>(values -> value, NONE);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Plan<T> slot(int index) {
+      return new Plan<>(values -> (T) values[index], new int[] { index });
+    }
+
+    /**
+     * All the plans are evaluated in a single loop, errors are reported in the same order of the plans.
+     */
+    static Plan<Object[]> product(List<Plan<?>> plans) {
+      Plan<?>[] array = plans.toArray(Plan<?>[]::new);
+      int size = 0;
+      for (Plan<?> plan : array) {
+        size += plan.order.length;
+      }
+      int[] order = new int[size];
+      int offset = 0;
+      for (Plan<?> plan : array) {
+        System.arraycopy(plan.order, 0, order, offset, plan.order.length);
+        offset += plan.order.length;
+      }
+      return new Plan<>(values -> {
+        Object[] result = new Object[array.length];
+        for (int i = 0; i < array.length; i++) {
+          result[i] = array[i].combine.apply(values);
+        }
+        return result;
+      }, order);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Plan<T> narrowK(Kind<Plan<?>, ? extends T> kind) {
+      return (Plan<T>) kind;
+    }
+  }
+
+  private interface PlanApplicative extends Applicative<Plan<?>> {
+
+    PlanApplicative INSTANCE = new PlanApplicative() { };
+
+    @Override
+    default <T> Plan<T> pure(T value) {
+      return Plan.pure(value);
+    }
+
+    @Override
+    default <T, R> Plan<R> ap(Kind<Plan<?>, ? extends T> value,
+        Kind<Plan<?>, ? extends Function1<? super T, ? extends R>> apply) {
+      Plan<T> plan = Plan.narrowK(value);
+      Plan<Function1<? super T, ? extends R>> function = Plan.narrowK(apply);
+      // same order used by Validation applicative: first the value errors, then the function errors
+      int[] order = new int[plan.order.length + function.order.length];
+      System.arraycopy(plan.order, 0, order, 0, plan.order.length);
+      System.arraycopy(function.order, 0, order, plan.order.length, function.order.length);
+      return new Plan<>(values -> function.combine.apply(values).apply(plan.combine.apply(values)), order);
+    }
+  }
+
+  private static final class Compiler implements FunctionK<DSL<?>, Plan<?>>, DSL.Visitor<Plan<?>> {
+
+    private final KeyPath baseKey;
+    private final List<Step> steps;
+
+    private Compiler(KeyPath baseKey, List<Step> steps) {
+      this.baseKey = checkNonNull(baseKey);
+      this.steps = checkNonNull(steps);
+    }
+
+    @Override
+    public <T> Kind<Plan<?>, T> apply(Kind<DSL<?>, ? extends T> from) {
+      return from.fix(DSLOf::<T>toDSL).accept(this);
+    }
+
+    @Override
+    public <T> Plan<T> visit(DSL.Pure<T> value) {
+      return Plan.pure(value.get());
+    }
+
+    @Override
+    public Plan<String> visit(DSL.ReadString value) {
+      return add(new StringStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Integer> visit(DSL.ReadInt value) {
+      return add(new IntStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Boolean> visit(DSL.ReadBoolean value) {
+      return add(new BooleanStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Long> visit(DSL.ReadLong value) {
+      return add(new LongStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Double> visit(DSL.ReadDouble value) {
+      return add(new DoubleStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Duration> visit(DSL.ReadDuration value) {
+      return add(new DurationStep(extend(value)));
+    }
+
+    @Override
+    public Plan<Long> visit(DSL.ReadByteSize value) {
+      return add(new ByteSizeStep(extend(value)));
+    }
+
+    @Override
+    public <T> Plan<Iterable<T>> visit(DSL.ReadPrimitiveIterable<T> value) {
+      return add(new PrimitiveIterableStep(extend(value), value.type()));
+    }
+
+    @Override
+    public <T> Plan<Iterable<T>> visit(DSL.ReadIterable<T> value) {
+      return add(new IterableStep(extend(value), compile(value.next()), value.parallel()));
+    }
+
+    @Override
+    public Plan<int[]> visit(DSL.ReadIntArray value) {
+      return add(new IntArrayStep(extend(value)));
+    }
+
+    @Override
+    public Plan<long[]> visit(DSL.ReadLongArray value) {
+      return add(new LongArrayStep(extend(value)));
+    }
+
+    @Override
+    public Plan<double[]> visit(DSL.ReadDoubleArray value) {
+      return add(new DoubleArrayStep(extend(value)));
+    }
+
+    @Override
+    public <T> Plan<List<T>> visit(DSL.ReadLazyIterable<T> value) {
+      return add(new LazyIterableStep(extend(value), compile(value.next())));
+    }
+
+    @Override
+    public <T> Plan<T> visit(DSL.ReadConfig<T> value) {
+      return Plan.narrowK(value.next().foldMap(new Compiler(extend(value), steps), PlanApplicative.INSTANCE));
+    }
+
+    @Override
+    public Plan<Object[]> visit(DSL.ReadProduct value) {
+      var compiler = new Compiler(extend(value), steps);
+      List<Plan<?>> plans = new ArrayList<>(value.fields().size());
+      for (PureCFG<?> field : value.fields()) {
+        plans.add(Plan.narrowK(field.foldMap(compiler, PlanApplicative.INSTANCE)));
+      }
+      return Plan.product(plans);
+    }
+
+    private <T> Plan<T> add(Step step) {
+      steps.add(step);
+      return Plan.slot(steps.size() - 1);
+    }
+
+    private KeyPath extend(DSL<?> value) {
+      return baseKey.resolve(value.key());
+    }
+  }
+}
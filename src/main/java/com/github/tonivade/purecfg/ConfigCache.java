@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * <p>On-disk cache of the values read by a program, to avoid parsing the configuration files again when
+ * they don't change between restarts.</p>
+ *
+ * <p>The cache stores only the keys required by the program, as strings, in a compact binary format. It's
+ * valid while the content of the input files and the schema of the program are the same, both are checked
+ * with a SHA-256 hash stored in the header of the file, and the content is checked with a CRC32. The file is
+ * memory mapped to read it. If the cache is missing, stale or corrupted, the files are parsed with the loader
+ * and the cache is written again.</p>
+ *
+ * <p>The values are always served as strings, like a properties file, both when they are read from the
+ * cache and when they are loaded again, so the program reads the same values no matter the state of the
+ * cache, for example a toml string {@code port = "8080"} can be read as an integer in both cases.</p>
+ *
+ * <p>The format is: magic and version, hash of the inputs, hash of the schema, number of entries, every
+ * entry as the length and bytes in UTF-8 of the key and the value, and the CRC32 of all the previous
+ * bytes.</p>
+ *
+ * <pre>
+ *   var program = PureCFG.forRecord(AppConfig.class);
+ *   var toml = Path.of("app.toml");
+ *   var source = ConfigCache.load(Path.of("app.cache"), program, List.of(toml), () -> Source.fromToml(toml));
+ *   var config = program.unsafeRun(source);
+ * </pre>
+ */
+public final class ConfigCache {
+
+  private static final int MAGIC = 0x50434647;
+  private static final int VERSION = 1;
+  private static final int HASH_SIZE = 32;
+
+  private static final Logger LOGGER = System.getLogger(ConfigCache.class.getName());
+
+  private ConfigCache() { }
+
+  /**
+   * @param cache path of the cache file, it's created if it doesn't exist
+   * @param program program that reads the configuration, only the keys required by the program are cached
+   * @param inputs files that the loader parses, used to check if the cache is still valid
+   * @param loader parses the files when the cache is not valid, if it doesn't support {@link Source#entries()}
+   * the values are not cached
+   * @return a source with the values of the cache, or the source created by the loader if it doesn't support
+   * {@link Source#entries()}
+   */
+  public static Source load(Path cache, PureCFG<?> program, List<Path> inputs, Supplier<? extends Source> loader) {
+    checkNonNull(cache);
+    checkNonNull(loader);
+    byte[] inputsHash = hashInputs(inputs);
+    byte[] schemaHash = hash(program.schema().toJson().getBytes(UTF_8));
+
+    if (Files.isRegularFile(cache)) {
+      try {
+        return toSource(read(cache, inputsHash, schemaHash));
+      } catch (InvalidCacheException | IOException e) {
+        // stale or corrupted, it's created again
+      }
+    }
+
+    Source source = loader.get();
+    if (!source.supportsEntries()) {
+      return source;
+    }
+    Map<String, String> values = resolve(source, program.requiredKeys());
+    try {
+      write(cache, inputsHash, schemaHash, values);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "cannot write cache file " + cache, e);
+    }
+    return toSource(values);
+  }
+
+  private static Map<String, String> resolve(Source source, RequiredKeys keys) {
+    Map<String, String> result = new TreeMap<>();
+    source.entries().forEach((key, value) -> {
+      if (keys.contains(key)) {
+        result.put(key, String.valueOf(value));
+      }
+    });
+    return result;
+  }
+
+  private static Source toSource(Map<String, String> values) {
+    Properties properties = new Properties();
+    properties.putAll(values);
+    return Source.from(properties);
+  }
+
+  private static Map<String, String> read(Path cache, byte[] inputsHash, byte[] schemaHash)
+      throws IOException, InvalidCacheException {
+    try (var channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length > Integer.MAX_VALUE) {
+        throw new InvalidCacheException("file too big to be mapped: " + cache);
+      }
+      return parse(channel.map(MapMode.READ_ONLY, 0, length), inputsHash, schemaHash);
+    }
+  }
+
+  private static Map<String, String> parse(ByteBuffer buffer, byte[] inputsHash, byte[] schemaHash)
+      throws InvalidCacheException {
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new InvalidCacheException("invalid header");
+      }
+      if (!Arrays.equals(readBytes(buffer, HASH_SIZE), inputsHash)) {
+        throw new InvalidCacheException("inputs changed");
+      }
+      if (!Arrays.equals(readBytes(buffer, HASH_SIZE), schemaHash)) {
+        throw new InvalidCacheException("schema changed");
+      }
+      int count = buffer.getInt();
+      Map<String, String> result = new TreeMap<>();
+      for (int i = 0; i < count; i++) {
+        String key = readString(buffer);
+        result.put(key, readString(buffer));
+      }
+      int end = buffer.position();
+      long checksum = Integer.toUnsignedLong(buffer.getInt());
+      if (buffer.hasRemaining() || checksum != crc(buffer.duplicate().position(0).limit(end))) {
+        throw new InvalidCacheException("corrupted content");
+      }
+      return result;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new InvalidCacheException("corrupted content");
+    }
+  }
+
+  /**
+   * The file is written in a temporary file in the same folder first and then moved, so a process reading
+   * the cache never sees a file partially written. Every write uses its own temporary file, and it's removed
+   * if the move fails.
+   */
+  private static void write(Path cache, byte[] inputsHash, byte[] schemaHash, Map<String, String> values)
+      throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(bytes)) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.write(inputsHash);
+      output.write(schemaHash);
+      output.writeInt(values.size());
+      for (var entry : values.entrySet()) {
+        writeString(output, entry.getKey());
+        writeString(output, entry.getValue());
+      }
+    }
+    byte[] content = bytes.toByteArray();
+    ByteBuffer checksum = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc(ByteBuffer.wrap(content)));
+
+    Path parent = cache.toAbsolutePath().getParent();
+    if (parent == null) {
+      throw new IOException("invalid cache file: " + cache);
+    }
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, String.valueOf(cache.getFileName()), ".tmp");
+    try {
+      try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        checksum.flip();
+        while (checksum.hasRemaining()) {
+          channel.write(checksum);
+        }
+      }
+      move(temp, cache);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * If the file system cannot replace the file atomically, it's replaced with a regular move.
+   */
+  private static void move(Path temp, Path cache) throws IOException {
+    try {
+      Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    return new String(readBytes(buffer, length), UTF_8);
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer, int length) {
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static long crc(ByteBuffer buffer) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer);
+    return crc.getValue();
+  }
+
+  private static byte[] hashInputs(List<Path> inputs) {
+    MessageDigest digest = sha256();
+    for (Path input : inputs) {
+      digest.update(input.toAbsolutePath().toString().getBytes(UTF_8));
+      try {
+        digest.update(Files.readAllBytes(input));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return digest.digest();
+  }
+
+  private static byte[] hash(byte[] content) {
+    return sha256().digest(content);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class InvalidCacheException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    InvalidCacheException(String message) {
+      super(message);
+    }
+  }
+}
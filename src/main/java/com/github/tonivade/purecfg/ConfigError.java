@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+/**
+ * An error found while reading a key.
+ *
+ * @param key full key
+ * @param type expected type of the value, like {@code Integer}
+ * @param reason why the value cannot be read, like {@code key not found}
+ */
+public record ConfigError(String key, String type, String reason) {
+
+  static final String NOT_FOUND = "key not found";
+  static final String LOOKUP_FAILED = "lookup failed";
+
+  public ConfigError {
+    checkNonNull(key);
+    checkNonNull(type);
+    checkNonNull(reason);
+  }
+
+  public String message() {
+    return reason + ": " + key;
+  }
+}
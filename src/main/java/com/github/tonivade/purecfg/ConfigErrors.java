@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Validation;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>Errors found by {@link PureCFG#validate(Source)}, in the same order they are found.</p>
+ *
+ * <p>Joining two instances doesn't copy the errors, it only creates a new node, so collecting all
+ * the errors of a big list is linear. Only the first {@code maxErrors} errors are kept, but all of
+ * them are counted, see {@link #count()}.</p>
+ */
+public final class ConfigErrors implements Iterable<ConfigError> {
+
+  public static final int DEFAULT_MAX_ERRORS = 100;
+
+  private final Node root;
+  private final int kept;
+  private final int count;
+  private final int maxErrors;
+
+  private ConfigErrors(Node root, int kept, int count, int maxErrors) {
+    this.root = checkNonNull(root);
+    this.kept = kept;
+    this.count = count;
+    this.maxErrors = maxErrors;
+  }
+
+  static ConfigErrors of(ConfigError error, int maxErrors) {
+    if (maxErrors < 1) {
+      throw new IllegalArgumentException("max errors must be positive: " + maxErrors);
+    }
+    return new ConfigErrors(new Leaf(error), 1, 1, maxErrors);
+  }
+
+  ConfigErrors concat(ConfigErrors other) {
+    int total = saturatedAdd(count, other.count);
+    if (kept >= maxErrors) {
+      return new ConfigErrors(root, kept, total, maxErrors);
+    }
+    return new ConfigErrors(
+        new Concat(root, other.root), Math.min(maxErrors, kept + other.kept), total, maxErrors);
+  }
+
+  /**
+   * @return number of errors found, including the ones not kept
+   */
+  public int count() {
+    return count;
+  }
+
+  /**
+   * @return true if some errors were discarded because there were more than the maximum
+   */
+  public boolean isTruncated() {
+    return count > kept;
+  }
+
+  /**
+   * @return the errors kept, at most the maximum number of errors
+   */
+  public List<ConfigError> errors() {
+    List<ConfigError> result = new ArrayList<>(kept);
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty() && result.size() < kept) {
+      switch (pending.pop()) {
+        case Leaf leaf -> result.add(leaf.error());
+        case Concat concat -> {
+          pending.push(concat.right());
+          pending.push(concat.left());
+        }
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public Iterator<ConfigError> iterator() {
+    return errors().iterator();
+  }
+
+  /**
+   * @return the messages of the errors kept, in the format used by {@link PureCFG#validatedRun(Source)}
+   */
+  public Validation.Result<String> toResult() {
+    List<ConfigError> errors = errors();
+    // built in a single step, concat copies all the previous errors every time
+    String[] others = new String[errors.size() - 1];
+    for (int i = 1; i < errors.size(); i++) {
+      others[i - 1] = errors.get(i).message();
+    }
+    return Validation.Result.of(errors.get(0).message(), others);
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigErrors(" + count + ")" + errors();
+  }
+
+  private static int saturatedAdd(int a, int b) {
+    int result = a + b;
+    return result < 0 ? Integer.MAX_VALUE : result;
+  }
+
+  private sealed interface Node { }
+
+  private record Leaf(ConfigError error) implements Node { }
+
+  private record Concat(Node left, Node right) implements Node { }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Validation;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A {@link CompiledCFG} bound to the values of a source, created with {@link CompiledCFG#bind(Source)}.</p>
+ *
+ * <p>Every read of the program has a fixed slot, the values are read and parsed only once when the snapshot
+ * is created and stored in a dense array. Running the snapshot only calls the combining function of the
+ * program with the values of the array, without lookups, parsing or intermediate allocations, so it can be
+ * used to create a new instance of the configuration every time it's needed.</p>
+ *
+ * @param <T> type of the resulting configuration
+ */
+public final class ConfigSnapshot<T> {
+
+  private final CompiledCFG<T> program;
+  private final Object[] values;
+  private final List<String> errors;
+
+  ConfigSnapshot(CompiledCFG<T> program, Object[] values, List<String> errors) {
+    this.program = checkNonNull(program);
+    this.values = checkNonNull(values);
+    this.errors = List.copyOf(errors);
+  }
+
+  public CompiledCFG<T> program() {
+    return program;
+  }
+
+  /**
+   * @return true if all the keys of the program were found in the source
+   */
+  public boolean isValid() {
+    return errors.isEmpty();
+  }
+
+  public T unsafeRun() {
+    if (!errors.isEmpty()) {
+      throw new NoSuchElementException(errors.get(0));
+    }
+    return program.combine(values);
+  }
+
+  public Option<T> safeRun() {
+    if (!errors.isEmpty()) {
+      return Option.none();
+    }
+    return Option.some(program.combine(values));
+  }
+
+  public Validation<Validation.Result<String>, T> validatedRun() {
+    if (!errors.isEmpty()) {
+      return Validation.invalid(CompiledCFG.toResult(errors));
+    }
+    return Validation.valid(program.combine(values));
+  }
+}
@@ -9,6 +9,8 @@ import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 
 import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
+import java.time.Duration;
+import java.util.List;
 
 @HigherKind
 public sealed interface DSL<T> extends DSLOf<T> {
@@ -27,11 +29,29 @@ public sealed interface DSL<T> extends DSLOf<T> {
 
     Kind<F, Boolean> visit(ReadBoolean value);
 
+    Kind<F, Long> visit(ReadLong value);
+
+    Kind<F, Double> visit(ReadDouble value);
+
+    Kind<F, Duration> visit(ReadDuration value);
+
+    Kind<F, Long> visit(ReadByteSize value);
+
     <T> Kind<F, Iterable<T>> visit(ReadPrimitiveIterable<T> value);
 
     <T> Kind<F, Iterable<T>> visit(ReadIterable<T> value);
 
+    <T> Kind<F, List<T>> visit(ReadLazyIterable<T> value);
+
+    Kind<F, int[]> visit(ReadIntArray value);
+
+    Kind<F, long[]> visit(ReadLongArray value);
+
+    Kind<F, double[]> visit(ReadDoubleArray value);
+
     <T> Kind<F, T> visit(ReadConfig<T> value);
+
+    Kind<F, Object[]> visit(ReadProduct value);
   }
 
   record Pure<T>(String key, T value) implements DSL<T> {
@@ -87,6 +107,54 @@ public sealed interface DSL<T> extends DSLOf<T> {
     }
   }
 
+  record ReadLong(String key) implements DSL<Long> {
+
+    public ReadLong {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, Long> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  record ReadDouble(String key) implements DSL<Double> {
+
+    public ReadDouble {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, Double> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  record ReadDuration(String key) implements DSL<Duration> {
+
+    public ReadDuration {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, Duration> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  record ReadByteSize(String key) implements DSL<Long> {
+
+    public ReadByteSize {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, Long> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
   record ReadPrimitiveIterable<T>(String key, Class<T> type) implements DSL<Iterable<T>> {
 
     public ReadPrimitiveIterable {
@@ -100,19 +168,75 @@ public sealed interface DSL<T> extends DSLOf<T> {
     }
   }
 
-  record ReadIterable<T>(String key, PureCFG<T> next) implements DSL<Iterable<T>> {
+  record ReadIntArray(String key) implements DSL<int[]> {
+
+    public ReadIntArray {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, int[]> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  record ReadLongArray(String key) implements DSL<long[]> {
+
+    public ReadLongArray {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, long[]> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  record ReadDoubleArray(String key) implements DSL<double[]> {
+
+    public ReadDoubleArray {
+      checkNonEmpty(key);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, double[]> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  /**
+   * @param parallel if true, the elements are read in parallel in the current fork-join pool
+   */
+  record ReadIterable<T>(String key, PureCFG<T> next, boolean parallel) implements DSL<Iterable<T>> {
 
     public ReadIterable {
       checkNonEmpty(key);
       checkNonNull(next);
     }
 
+    public ReadIterable(String key, PureCFG<T> next) {
+      this(key, next, false);
+    }
+
     @Override
     public <F extends Kind<F, ?>> Kind<F, Iterable<T>> accept(Visitor<F> visitor) {
       return visitor.visit(this);
     }
   }
 
+  record ReadLazyIterable<T>(String key, PureCFG<T> next) implements DSL<List<T>> {
+
+    public ReadLazyIterable {
+      checkNonEmpty(key);
+      checkNonNull(next);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, List<T>> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
   record ReadConfig<T>(String key, PureCFG<T> next) implements DSL<T> {
 
     public ReadConfig {
@@ -125,4 +249,20 @@ public sealed interface DSL<T> extends DSLOf<T> {
       return visitor.visit(this);
     }
   }
+
+  /**
+   * @param fields programs read with the same key, the result has one element for each program in the same order
+   */
+  record ReadProduct(String key, List<PureCFG<?>> fields) implements DSL<Object[]> {
+
+    public ReadProduct {
+      checkNonNull(key);
+      fields = List.copyOf(fields);
+    }
+
+    @Override
+    public <F extends Kind<F, ?>> Kind<F, Object[]> accept(Visitor<F> visitor) {
+      return visitor.visit(this);
+    }
+  }
 }
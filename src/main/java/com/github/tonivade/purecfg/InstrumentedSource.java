@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Source that reports every lookup of the decorated source to a {@link MetricsSink}. Lists are not reported,
+ * but every element is reported when it's read. Arrays are reported as a single lookup, found if not empty.
+ * A lookup that throws an exception is reported as a miss, with the time spent until it failed.
+ */
+final class InstrumentedSource implements Source {
+
+  private final Source source;
+  private final MetricsSink sink;
+
+  InstrumentedSource(Source source, MetricsSink sink) {
+    this.source = checkNonNull(source);
+    this.sink = checkNonNull(sink);
+  }
+
+  @Override
+  public Option<String> getString(String key) {
+    return record(key, () -> source.getString(key));
+  }
+
+  @Override
+  public Option<Integer> getInteger(String key) {
+    return record(key, () -> source.getInteger(key));
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(String key) {
+    return record(key, () -> source.getBoolean(key));
+  }
+
+  @Override
+  public Option<String> getString(KeyPath key) {
+    return record(key.toString(), () -> source.getString(key));
+  }
+
+  @Override
+  public Option<Integer> getInteger(KeyPath key) {
+    return record(key.toString(), () -> source.getInteger(key));
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(KeyPath key) {
+    return record(key.toString(), () -> source.getBoolean(key));
+  }
+
+  @Override
+  public Option<Long> getLong(String key) {
+    return record(key, () -> source.getLong(key));
+  }
+
+  @Override
+  public Option<Double> getDouble(String key) {
+    return record(key, () -> source.getDouble(key));
+  }
+
+  @Override
+  public Option<Duration> getDuration(String key) {
+    return record(key, () -> source.getDuration(key));
+  }
+
+  @Override
+  public Option<Long> getByteSize(String key) {
+    return record(key, () -> source.getByteSize(key));
+  }
+
+  @Override
+  public Option<Long> getLong(KeyPath key) {
+    return record(key.toString(), () -> source.getLong(key));
+  }
+
+  @Override
+  public Option<Double> getDouble(KeyPath key) {
+    return record(key.toString(), () -> source.getDouble(key));
+  }
+
+  @Override
+  public Option<Duration> getDuration(KeyPath key) {
+    return record(key.toString(), () -> source.getDuration(key));
+  }
+
+  @Override
+  public Option<Long> getByteSize(KeyPath key) {
+    return record(key.toString(), () -> source.getByteSize(key));
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+    return source.getIterable(key, type);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+    return source.getIterable(key, next);
+  }
+
+  @Override
+  public int[] getIntArray(String key) {
+    return record(key, () -> source.getIntArray(key), array -> array.length > 0);
+  }
+
+  @Override
+  public long[] getLongArray(String key) {
+    return record(key, () -> source.getLongArray(key), array -> array.length > 0);
+  }
+
+  @Override
+  public double[] getDoubleArray(String key) {
+    return record(key, () -> source.getDoubleArray(key), array -> array.length > 0);
+  }
+
+  /**
+   * The time of the batch is split between all the keys.
+   */
+  @Override
+  public Map<String, String> getAll(Collection<String> keys) {
+    long start = System.nanoTime();
+    Map<String, String> result = Map.of();
+    try {
+      result = source.getAll(keys);
+      return result;
+    } finally {
+      long nanos = keys.isEmpty() ? 0 : (System.nanoTime() - start) / keys.size();
+      for (String key : keys) {
+        sink.lookup(key, result.containsKey(key), nanos);
+      }
+    }
+  }
+
+  @Override
+  public boolean supportsBatch() {
+    return source.supportsBatch();
+  }
+
+  @Override
+  public boolean supportsEntries() {
+    return source.supportsEntries();
+  }
+
+  @Override
+  public boolean parsesStrings() {
+    return source.parsesStrings();
+  }
+
+  @Override
+  public Map<String, Object> entries() {
+    return source.entries();
+  }
+
+  Source source() {
+    return source;
+  }
+
+  @Override
+  public String toString() {
+    return "InstrumentedSource(" + source + ")";
+  }
+
+  private <T> Option<T> record(String key, Supplier<Option<T>> lookup) {
+    return record(key, lookup, Option::isPresent);
+  }
+
+  /**
+   * Recorded in a finally block, so a lookup that fails is reported too, as a miss.
+   */
+  private <T> T record(String key, Supplier<T> lookup, Predicate<? super T> found) {
+    long start = System.nanoTime();
+    boolean hit = false;
+    try {
+      T result = lookup.get();
+      hit = found.test(result);
+      return result;
+    } finally {
+      sink.lookup(key, hit, System.nanoTime() - start);
+    }
+  }
+}
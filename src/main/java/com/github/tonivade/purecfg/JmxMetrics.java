@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>Publishes a {@link LookupMetrics} in the platform MBean server, every attribute is a table with a row
+ * per key, and they are calculated every time they are read. The latency histogram of every key is an array
+ * with a counter per bucket, labelled by {@code HistogramBuckets}.</p>
+ *
+ * <pre>
+ *   var metrics = new LookupMetrics();
+ *   var source = Source.instrumented(Source.fromToml("app.toml"), metrics);
+ *   var name = JmxMetrics.register(metrics, "com.example:type=Config,name=app");
+ * </pre>
+ */
+public final class JmxMetrics implements LookupMetricsMXBean {
+
+  private static final List<String> BUCKET_LABELS = bucketLabels();
+
+  private final LookupMetrics metrics;
+
+  public JmxMetrics(LookupMetrics metrics) {
+    this.metrics = checkNonNull(metrics);
+  }
+
+  /**
+   * @param metrics the metrics to publish
+   * @param name object name of the bean
+   * @return the object name used to register the bean
+   * @throws IllegalArgumentException if the name is not valid, or it's already registered
+   */
+  public static ObjectName register(LookupMetrics metrics, String name) {
+    try {
+      ObjectName objectName = new ObjectName(name);
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new JmxMetrics(metrics), objectName);
+      return objectName;
+    } catch (JMException e) {
+      throw new IllegalArgumentException("cannot register metrics with name " + name, e);
+    }
+  }
+
+  public static void unregister(ObjectName name) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("cannot unregister metrics with name " + name, e);
+    }
+  }
+
+  @Override
+  public Map<String, Long> getHits() {
+    return byKey(LookupMetrics.KeyMetrics::hits);
+  }
+
+  @Override
+  public Map<String, Long> getMisses() {
+    return byKey(LookupMetrics.KeyMetrics::misses);
+  }
+
+  @Override
+  public Map<String, Long> getTotalNanos() {
+    return byKey(LookupMetrics.KeyMetrics::totalNanos);
+  }
+
+  @Override
+  public Map<String, Long> getMaxNanos() {
+    return byKey(LookupMetrics.KeyMetrics::maxNanos);
+  }
+
+  @Override
+  public List<String> getHistogramBuckets() {
+    return BUCKET_LABELS;
+  }
+
+  @Override
+  public Map<String, long[]> getHistogram() {
+    Map<String, long[]> result = new TreeMap<>();
+    for (LookupMetrics.KeyMetrics key : metrics.snapshot()) {
+      result.put(key.key(), key.histogram().stream().mapToLong(Long::longValue).toArray());
+    }
+    return result;
+  }
+
+  @Override
+  public long getTotalLookups() {
+    return metrics.snapshot().stream().mapToLong(LookupMetrics.KeyMetrics::lookups).sum();
+  }
+
+  @Override
+  public void reset() {
+    metrics.reset();
+  }
+
+  private static List<String> bucketLabels() {
+    List<String> result = new ArrayList<>();
+    for (Duration bound : LookupMetrics.BUCKETS) {
+      result.add("<=" + format(bound));
+    }
+    result.add(">" + format(LookupMetrics.BUCKETS.get(LookupMetrics.BUCKETS.size() - 1)));
+    return List.copyOf(result);
+  }
+
+  private static String format(Duration duration) {
+    long nanos = duration.toNanos();
+    if (nanos % 1_000_000_000 == 0) {
+      return nanos / 1_000_000_000 + "s";
+    }
+    if (nanos % 1_000_000 == 0) {
+      return nanos / 1_000_000 + "ms";
+    }
+    if (nanos % 1_000 == 0) {
+      return nanos / 1_000 + "us";
+    }
+    return nanos + "ns";
+  }
+
+  private Map<String, Long> byKey(ToLongFunction<LookupMetrics.KeyMetrics> value) {
+    Map<String, Long> result = new TreeMap<>();
+    for (LookupMetrics.KeyMetrics key : metrics.snapshot()) {
+      result.put(key.key(), value.applyAsLong(key));
+    }
+    return result;
+  }
+}
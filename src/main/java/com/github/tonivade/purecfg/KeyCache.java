@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Paths of the keys read by a program, resolved the first time and reused in every run, so reading a value
+ * doesn't split or concatenate keys.</p>
+ *
+ * <p>The base paths are compared by identity, they are the root or paths returned by this same cache, so the
+ * paths of nested configs are stable between runs. The cache is bounded, after {@link #MAX_SIZE} paths the new
+ * ones are resolved every time.</p>
+ */
+final class KeyCache {
+
+  static final int MAX_SIZE = 4096;
+
+  private final Map<KeyPath, Map<String, KeyPath>> paths = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  KeyPath resolve(String key) {
+    return resolve(KeyPath.root(), key);
+  }
+
+  KeyPath resolve(KeyPath base, String key) {
+    Map<String, KeyPath> children = paths.get(base);
+    if (children != null) {
+      KeyPath path = children.get(key);
+      if (path != null) {
+        return path;
+      }
+    }
+    KeyPath path = base.resolve(key);
+    if (size.get() < MAX_SIZE) {
+      KeyPath previous = paths.computeIfAbsent(base, x -> new ConcurrentHashMap<>()).putIfAbsent(key, path);
+      if (previous != null) {
+        return previous;
+      }
+      size.incrementAndGet();
+    }
+    return path;
+  }
+}
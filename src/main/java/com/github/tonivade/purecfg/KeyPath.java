@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>A key already split in segments, like {@code server.host}.</p>
+ *
+ * <p>Paths are immutable values, they are not cached globally, so they are discarded with the program or
+ * the source that created them. {@link CompiledCFG} resolves the key of every step once, when it's compiled,
+ * and the interpreters of {@link PureCFG} and the toml source keep the paths already resolved in a bounded
+ * table, so reading a value neither splits nor concatenates strings after the first run.</p>
+ */
+public final class KeyPath {
+
+  private static final KeyPath ROOT = new KeyPath(List.of(), List.of(), "");
+
+  private final List<String> segments;
+  private final List<List<String>> singletons;
+  private final String value;
+
+  private KeyPath(List<String> segments, List<List<String>> singletons, String value) {
+    this.segments = checkNonNull(segments);
+    this.singletons = checkNonNull(singletons);
+    this.value = checkNonNull(value);
+  }
+
+  public static KeyPath root() {
+    return ROOT;
+  }
+
+  /**
+   * @param key the key with its segments separated by dots
+   * @return the path of the key
+   * @throws IllegalArgumentException if any segment is empty, like in {@code a..b}
+   */
+  public static KeyPath of(String key) {
+    return ROOT.resolve(key);
+  }
+
+  public boolean isRoot() {
+    return segments.isEmpty();
+  }
+
+  public int size() {
+    return segments.size();
+  }
+
+  public String segment(int index) {
+    return segments.get(index);
+  }
+
+  public List<String> segments() {
+    return segments;
+  }
+
+  /**
+   * Segment at the given position as a single element list, useful to navigate
+   * tables without parsing the key again.
+   */
+  List<String> segmentPath(int index) {
+    return singletons.get(index);
+  }
+
+  public KeyPath resolve(KeyPath other) {
+    if (other.isRoot()) {
+      return this;
+    }
+    if (isRoot()) {
+      return other;
+    }
+    List<String> newSegments = new ArrayList<>(segments);
+    newSegments.addAll(other.segments);
+    List<List<String>> newSingletons = new ArrayList<>(singletons);
+    newSingletons.addAll(other.singletons);
+    return new KeyPath(List.copyOf(newSegments), List.copyOf(newSingletons), value + "." + other.value);
+  }
+
+  /**
+   * @param key relative key, an empty key is the same path
+   * @return the path of the key relative to this path
+   * @throws IllegalArgumentException if any segment of the key is empty, like in {@code a..b}
+   */
+  public KeyPath resolve(String key) {
+    if (key.isEmpty()) {
+      return this;
+    }
+    List<String> newSegments = new ArrayList<>(segments);
+    List<List<String>> newSingletons = new ArrayList<>(singletons);
+    int start = 0;
+    while (start <= key.length()) {
+      int end = key.indexOf('.', start);
+      if (end < 0) {
+        end = key.length();
+      }
+      if (end == start) {
+        throw new IllegalArgumentException("empty segment in key: " + key);
+      }
+      String segment = key.substring(start, end);
+      newSegments.add(segment);
+      newSingletons.add(List.of(segment));
+      start = end + 1;
+    }
+    return new KeyPath(List.copyOf(newSegments), List.copyOf(newSingletons), isRoot() ? key : value + "." + key);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
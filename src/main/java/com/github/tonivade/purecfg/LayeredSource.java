@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.data.ImmutableArray.toImmutableArray;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * <p>Many sources merged in a single flat index, created with {@link Source#layered(Source...)}.</p>
+ *
+ * <p>The values of all the layers are copied when the source is created, the first layer that defines a key
+ * wins. After that, every lookup is a single hash lookup, it doesn't matter how many layers there are.
+ * Lists are merged element by element, so a layer can override {@code list.1.name} without repeating
+ * the rest of the list.</p>
+ *
+ * <p>All the layers must support {@link Source#entries()}, decorators like {@link Source#instrumented(Source,
+ * MetricsSink)} or {@link ReloadableSource} are supported if the decorated source is. They are read only once,
+ * so changes in the layers after creating the source are not visible.</p>
+ */
+public final class LayeredSource implements Source {
+
+  private final List<Source> layers;
+  private final Map<String, Value> values;
+  private final NavigableSet<String> index;
+
+  LayeredSource(List<Source> layers) {
+    this.layers = List.copyOf(layers);
+    this.values = merge(layers);
+    this.index = new TreeSet<>(values.keySet());
+  }
+
+  /**
+   * @param key full key
+   * @return the layer where the value of the key comes from
+   */
+  public Option<Source> origin(String key) {
+    return Option.of(values.get(key)).map(value -> layers.get(value.layer()));
+  }
+
+  List<Source> layers() {
+    return layers;
+  }
+
+  /**
+   * Same as {@link #origin(String)} but returns the index of the layer, or -1 if the key doesn't exist.
+   */
+  int layer(String key) {
+    Value value = values.get(key);
+    return value != null ? value.layer() : -1;
+  }
+
+  @Override
+  public Option<String> getString(String key) {
+    return read(key).map(String::valueOf);
+  }
+
+  /**
+   * Numbers of toml layers are checked like {@link Source.TomlSource} does, an integer out of range fails
+   * and a float is not truncated.
+   */
+  @Override
+  public Option<Integer> getInteger(String key) {
+    return read(key).flatMap(value -> toInteger(key, value));
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(String key) {
+    return read(key).map(value -> value instanceof Boolean bool
+        ? bool : Boolean.parseBoolean(value.toString()));
+  }
+
+  /**
+   * Same as {@link #getInteger(String)}, a float is not truncated.
+   */
+  @Override
+  public Option<Long> getLong(String key) {
+    return read(key).flatMap(LayeredSource::toLong);
+  }
+
+  @Override
+  public Option<Double> getDouble(String key) {
+    return read(key).map(value -> value instanceof Number number
+        ? number.doubleValue() : Double.parseDouble(value.toString()));
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+    return PropertiesSource.iterableKeys(index, key).stream()
+        .map(k -> PropertiesSource.readKey(k, type)).collect(toImmutableArray());
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+    return PropertiesSource.iterableKeys(index, key).stream()
+        .map(k -> new DSL.ReadConfig<>(k, next)).collect(toImmutableArray());
+  }
+
+  @Override
+  public boolean supportsEntries() {
+    return true;
+  }
+
+  @Override
+  public Map<String, Object> entries() {
+    Map<String, Object> result = new HashMap<>();
+    values.forEach((key, value) -> result.put(key, value.value()));
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "LayeredSource" + layers;
+  }
+
+  private static Option<Integer> toInteger(String key, Object value) {
+    return switch (value) {
+      case Integer number -> Option.some(number);
+      case Long number -> Option.some(Source.TomlSource.toInt(key, number));
+      case Number number -> Option.none();
+      default -> Option.some(Integer.parseInt(value.toString()));
+    };
+  }
+
+  private static Option<Long> toLong(Object value) {
+    return switch (value) {
+      case Integer number -> Option.some(number.longValue());
+      case Long number -> Option.some(number);
+      case Number number -> Option.none();
+      default -> Option.some(Long.parseLong(value.toString()));
+    };
+  }
+
+  private Option<Object> read(String key) {
+    return Option.of(values.get(key)).map(Value::value);
+  }
+
+  private static Map<String, Value> merge(List<Source> layers) {
+    Map<String, Value> result = new HashMap<>();
+    for (int i = 0; i < layers.size(); i++) {
+      int layer = i;
+      Source source = checkNonNull(layers.get(i));
+      if (!source.supportsEntries()) {
+        throw new IllegalArgumentException("layer " + i + " doesn't support entries: " + source);
+      }
+      source.entries().forEach((key, value) -> result.putIfAbsent(key, new Value(value, layer)));
+    }
+    return result;
+  }
+
+  private record Value(Object value, int layer) { }
+}
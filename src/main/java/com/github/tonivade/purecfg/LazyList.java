@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Unmodifiable list where every element is decoded the first time it's accessed, and then memoized.
+ * Two threads accessing the same element at the same time could decode it twice, but both will
+ * see the same instance.
+ *
+ * @param <E> type of the elements of the list
+ * @param <T> type of the decoded elements
+ */
+final class LazyList<E, T> extends AbstractList<T> implements RandomAccess {
+
+  private final List<E> elements;
+  private final Function<? super E, ? extends T> decoder;
+  private final AtomicReferenceArray<T> values;
+
+  LazyList(Iterable<? extends E> elements, Function<? super E, ? extends T> decoder) {
+    List<E> list = new ArrayList<>();
+    checkNonNull(elements).forEach(list::add);
+    this.elements = list;
+    this.decoder = checkNonNull(decoder);
+    this.values = new AtomicReferenceArray<>(list.size());
+  }
+
+  @Override
+  public T get(int index) {
+    T value = values.get(index);
+    if (value != null) {
+      return value;
+    }
+    T decoded = checkNonNull(decoder.apply(elements.get(index)));
+    return values.compareAndSet(index, null, decoded) ? decoded : values.get(index);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+}
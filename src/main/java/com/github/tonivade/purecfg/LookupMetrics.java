@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>{@link MetricsSink} that keeps, for every key, the number of hits and misses and a histogram of the
+ * lookup latency.</p>
+ *
+ * <p>Counters are {@link LongAdder}s, so threads reading the source at the same time don't contend on the
+ * same counter and no locks are taken while recording a lookup. Use {@link #snapshot()} to read the values,
+ * or {@link JmxMetrics} to publish them with JMX.</p>
+ */
+public final class LookupMetrics implements MetricsSink {
+
+  /**
+   * Upper bounds of the buckets of the histogram, the last bucket has all the lookups slower than 1s.
+   */
+  public static final List<Duration> BUCKETS = List.of(
+      Duration.ofNanos(1_000),
+      Duration.ofNanos(10_000),
+      Duration.ofNanos(100_000),
+      Duration.ofMillis(1),
+      Duration.ofMillis(10),
+      Duration.ofMillis(100),
+      Duration.ofSeconds(1));
+
+  private static final long[] BOUNDS = BUCKETS.stream().mapToLong(Duration::toNanos).toArray();
+
+  private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+  @Override
+  public void lookup(String key, boolean found, long nanos) {
+    counters(key).record(found, nanos);
+  }
+
+  /**
+   * @return the current values of all the keys read, sorted by key
+   */
+  public List<KeyMetrics> snapshot() {
+    List<KeyMetrics> result = new ArrayList<>(counters.size());
+    counters.forEach((key, value) -> result.add(value.snapshot(key)));
+    result.sort(Comparator.comparing(KeyMetrics::key));
+    return result;
+  }
+
+  public void reset() {
+    counters.clear();
+  }
+
+  private Counters counters(String key) {
+    Counters current = counters.get(key);
+    if (current != null) {
+      return current;
+    }
+    Counters created = new Counters();
+    Counters previous = counters.putIfAbsent(key, created);
+    return previous != null ? previous : created;
+  }
+
+  /**
+   * @param key full key
+   * @param hits number of lookups that found a value
+   * @param misses number of lookups that didn't find a value
+   * @param totalNanos time spent in all the lookups
+   * @param maxNanos time spent in the slowest lookup
+   * @param histogram number of lookups in every bucket of {@link LookupMetrics#BUCKETS}, plus the slower ones
+   */
+  public record KeyMetrics(String key, long hits, long misses, long totalNanos, long maxNanos, List<Long> histogram) {
+
+    public KeyMetrics {
+      checkNonNull(key);
+      histogram = List.copyOf(histogram);
+    }
+
+    public long lookups() {
+      return hits + misses;
+    }
+  }
+
+  private static final class Counters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] histogram = new LongAdder[BOUNDS.length + 1];
+
+    private Counters() {
+      for (int i = 0; i < histogram.length; i++) {
+        histogram[i] = new LongAdder();
+      }
+    }
+
+    void record(boolean found, long nanos) {
+      (found ? hits : misses).increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      histogram[bucket(nanos)].increment();
+    }
+
+    KeyMetrics snapshot(String key) {
+      List<Long> values = new ArrayList<>(histogram.length);
+      for (LongAdder bucket : histogram) {
+        values.add(bucket.sum());
+      }
+      return new KeyMetrics(key, hits.sum(), misses.sum(), totalNanos.sum(), maxNanos.get(), values);
+    }
+
+    private static int bucket(long nanos) {
+      int i = 0;
+      while (i < BOUNDS.length && nanos > BOUNDS[i]) {
+        i++;
+      }
+      return i;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface of {@link JmxMetrics}, every map has the value of each key read from the source.
+ */
+public interface LookupMetricsMXBean {
+
+  Map<String, Long> getHits();
+
+  Map<String, Long> getMisses();
+
+  Map<String, Long> getTotalNanos();
+
+  Map<String, Long> getMaxNanos();
+
+  /**
+   * @return labels of the buckets of the histogram, like {@code <=1ms}, one for every bucket of
+   * {@link LookupMetrics#BUCKETS} plus the last one with the slower lookups
+   */
+  List<String> getHistogramBuckets();
+
+  /**
+   * @return number of lookups of every key in each bucket of {@link #getHistogramBuckets()}
+   */
+  Map<String, long[]> getHistogram();
+
+  long getTotalLookups();
+
+  void reset();
+}
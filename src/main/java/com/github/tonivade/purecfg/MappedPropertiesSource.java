@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.data.ImmutableArray.toImmutableArray;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import com.github.tonivade.purefun.type.Option;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * <p>Source for properties files that reads the file directly from a memory mapped buffer.</p>
+ *
+ * <p>Loading the file only builds a hash index with the offsets of every key and value, nothing is copied
+ * to the heap until a key is read, so the startup time and memory depend on the keys actually used and
+ * not on the size of the file. As {@link Properties}, the file is read as ISO-8859-1.</p>
+ *
+ * <p>Lines with escape sequences or continuations are rare in generated files, these lines are parsed
+ * with {@link Properties} to keep the same semantics and stored apart.</p>
+ */
+public final class MappedPropertiesSource implements Source {
+
+  private static final int KEY_START = 0;
+  private static final int KEY_END = 1;
+  private static final int VALUE_START = 2;
+  private static final int VALUE_END = 3;
+  private static final int HASH = 4;
+  private static final int FIELDS = 5;
+
+  private static final int REMOVED = -1;
+  private static final int[] UNSORTED = new int[0];
+  private static final Predicate<String> ALL = key -> true;
+
+  private final ByteBuffer buffer;
+  private final int[] entries;
+  private final int size;
+  private final int[] table;
+  private final Map<String, String> escaped;
+
+  private volatile int[] sorted = UNSORTED;
+
+  private MappedPropertiesSource(ByteBuffer buffer, int[] entries, int size, int[] table, Map<String, String> escaped) {
+    this.buffer = checkNonNull(buffer);
+    this.entries = checkNonNull(entries);
+    this.size = size;
+    this.table = checkNonNull(table);
+    this.escaped = checkNonNull(escaped);
+  }
+
+  public static MappedPropertiesSource map(Path file) {
+    return map(file, ALL);
+  }
+
+  /**
+   * Maps the file, but only the keys needed by the program are indexed, the rest of the lines
+   * are skipped while parsing.
+   *
+   * @param file path of the file
+   * @param keys keys read by the program
+   * @return the created source
+   */
+  public static MappedPropertiesSource map(Path file, RequiredKeys keys) {
+    return map(file, keys::contains);
+  }
+
+  public static MappedPropertiesSource parse(ByteBuffer buffer) {
+    return parse(buffer, ALL);
+  }
+
+  public static MappedPropertiesSource parse(ByteBuffer buffer, RequiredKeys keys) {
+    return parse(buffer, keys::contains);
+  }
+
+  private static MappedPropertiesSource map(Path file, Predicate<String> filter) {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("file too big to be mapped: " + file);
+      }
+      return parse(channel.map(MapMode.READ_ONLY, 0, length), filter);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static MappedPropertiesSource parse(ByteBuffer buffer, Predicate<String> filter) {
+    return new Parser(buffer, filter).parse();
+  }
+
+  @Override
+  public Option<String> getString(String key) {
+    return readString(key);
+  }
+
+  @Override
+  public Option<Integer> getInteger(String key) {
+    return readString(key).map(Integer::parseInt);
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(String key) {
+    return readString(key).map(Boolean::parseBoolean);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+    return iterableKeys(key).stream()
+        .map(k -> PropertiesSource.readKey(k, type)).collect(toImmutableArray());
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+    return iterableKeys(key).stream()
+        .map(k -> new DSL.ReadConfig<>(k, next)).collect(toImmutableArray());
+  }
+
+  @Override
+  public boolean supportsEntries() {
+    return true;
+  }
+
+  @Override
+  public boolean parsesStrings() {
+    return true;
+  }
+
+  @Override
+  public Map<String, Object> entries() {
+    Map<String, Object> result = new HashMap<>(escaped);
+    for (int i = 0; i < size; i++) {
+      int offset = i * FIELDS;
+      if (entries[offset + VALUE_START] != REMOVED) {
+        result.put(decode(buffer, entries[offset + KEY_START], entries[offset + KEY_END]),
+            decode(buffer, entries[offset + VALUE_START], entries[offset + VALUE_END]));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "MappedPropertiesSource(" + size + " keys)";
+  }
+
+  private Option<String> readString(String key) {
+    int entry = find(entries, table, buffer, key);
+    if (entry >= 0) {
+      int offset = entry * FIELDS;
+      return Option.some(decode(buffer, entries[offset + VALUE_START], entries[offset + VALUE_END]));
+    }
+    return Option.of(escaped.get(key));
+  }
+
+  private Collection<String> iterableKeys(String key) {
+    String prefix = key + ".";
+    SortedMap<Integer, String> elements = new TreeMap<>();
+    int[] order = sorted();
+    int i = lowerBound(order, prefix);
+    while (i < order.length && compare(order[i], prefix, true) == 0) {
+      int offset = order[i] * FIELDS;
+      int end = entries[offset + KEY_START] + prefix.length();
+      while (end < entries[offset + KEY_END] && buffer.get(end) != '.') {
+        end++;
+      }
+      String element = decode(buffer, entries[offset + KEY_START], end);
+      if (PropertiesSource.isIndex(element, prefix.length())) {
+        elements.put(Integer.parseInt(element.substring(prefix.length())), element);
+      }
+      // '/' is the next character after '.'
+      i = lowerBound(order, element + "/");
+    }
+    for (String current : escaped.keySet()) {
+      if (current.startsWith(prefix)) {
+        int end = current.indexOf('.', prefix.length());
+        String element = end < 0 ? current : current.substring(0, end);
+        if (PropertiesSource.isIndex(element, prefix.length())) {
+          elements.put(Integer.parseInt(element.substring(prefix.length())), element);
+        }
+      }
+    }
+    return elements.values();
+  }
+
+  /**
+   * The keys sorted, only needed to find the elements of lists, so it's created the first time a list is read.
+   */
+  private int[] sorted() {
+    int[] result = sorted;
+    if (result == UNSORTED) {
+      Integer[] order = new Integer[size];
+      int length = 0;
+      for (int i = 0; i < size; i++) {
+        if (entries[i * FIELDS + VALUE_START] != REMOVED) {
+          order[length++] = i;
+        }
+      }
+      Arrays.sort(order, 0, length, this::compareKeys);
+      result = new int[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = order[i];
+      }
+      sorted = result;
+    }
+    return result;
+  }
+
+  private int lowerBound(int[] order, String key) {
+    int low = 0;
+    int high = order.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compare(order[middle], key, false) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int compareKeys(int a, int b) {
+    int startA = entries[a * FIELDS + KEY_START];
+    int lengthA = entries[a * FIELDS + KEY_END] - startA;
+    int startB = entries[b * FIELDS + KEY_START];
+    int lengthB = entries[b * FIELDS + KEY_END] - startB;
+    int limit = Math.min(lengthA, lengthB);
+    for (int i = 0; i < limit; i++) {
+      int diff = (buffer.get(startA + i) & 0xFF) - (buffer.get(startB + i) & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return lengthA - lengthB;
+  }
+
+  /**
+   * Compares the key of the entry with the given string, if prefix is true, only the first characters
+   * of the key are compared.
+   */
+  private int compare(int entry, String key, boolean prefix) {
+    int offset = entry * FIELDS;
+    int start = entries[offset + KEY_START];
+    int length = entries[offset + KEY_END] - start;
+    int limit = Math.min(length, key.length());
+    for (int i = 0; i < limit; i++) {
+      int diff = (buffer.get(start + i) & 0xFF) - key.charAt(i);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return prefix && length >= key.length() ? 0 : length - key.length();
+  }
+
+  private static int find(int[] entries, int[] table, ByteBuffer buffer, String key) {
+    int hash = spread(key.hashCode());
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = table[slot] - 1;
+      int offset = entry * FIELDS;
+      if (entries[offset + HASH] == hash
+          && entries[offset + VALUE_START] != REMOVED
+          && matches(buffer, entries[offset + KEY_START], entries[offset + KEY_END], key)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean matches(ByteBuffer buffer, int start, int end, String key) {
+    if (end - start != key.length()) {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if ((buffer.get(start + i) & 0xFF) != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String decode(ByteBuffer buffer, int start, int end) {
+    byte[] bytes = new byte[end - start];
+    buffer.get(start, bytes);
+    return new String(bytes, ISO_8859_1);
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Parser {
+
+    private final ByteBuffer buffer;
+    private final Predicate<String> filter;
+    private final int limit;
+    private final Map<String, String> escaped = new HashMap<>();
+
+    private int[] entries = new int[FIELDS * 256];
+    private int size;
+    private int[] table = new int[512];
+
+    private Parser(ByteBuffer buffer, Predicate<String> filter) {
+      this.buffer = checkNonNull(buffer);
+      this.filter = checkNonNull(filter);
+      this.limit = buffer.limit();
+    }
+
+    private MappedPropertiesSource parse() {
+      int position = 0;
+      while (position < limit) {
+        position = parseLine(position);
+      }
+      return new MappedPropertiesSource(buffer, entries, size, table, escaped);
+    }
+
+    private int parseLine(int start) {
+      int position = skipWhitespace(start);
+      if (position >= limit) {
+        return position;
+      }
+      byte first = buffer.get(position);
+      if (isEndOfLine(first)) {
+        return position + 1;
+      }
+      if (first == '#' || first == '!') {
+        return endOfLine(position) + 1;
+      }
+      int keyStart = position;
+      while (position < limit && !isKeyEnd(buffer.get(position))) {
+        position++;
+      }
+      if (position < limit && buffer.get(position) == '\\') {
+        return parseEscaped(start);
+      }
+      int keyEnd = position;
+      position = skipWhitespace(position);
+      if (position < limit && isSeparator(buffer.get(position))) {
+        position = skipWhitespace(position + 1);
+      }
+      int valueStart = position;
+      while (position < limit && !isEndOfLine(buffer.get(position)) && buffer.get(position) != '\\') {
+        position++;
+      }
+      if (position < limit && buffer.get(position) == '\\') {
+        return parseEscaped(start);
+      }
+      add(keyStart, keyEnd, valueStart, position);
+      return position + 1;
+    }
+
+    /**
+     * Lines with escape sequences are parsed with {@link Properties}, including all its continuation lines.
+     */
+    private int parseEscaped(int start) {
+      int end = endOfLine(start);
+      while (end < limit && endsWithContinuation(start, end)) {
+        int next = end + 1;
+        if (buffer.get(end) == '\r' && next < limit && buffer.get(next) == '\n') {
+          next++;
+        }
+        end = endOfLine(next);
+      }
+      try {
+        Properties properties = new Properties();
+        properties.load(new StringReader(decode(buffer, start, end)));
+        for (String key : properties.stringPropertyNames()) {
+          if (filter == ALL || filter.test(key)) {
+            remove(key);
+            escaped.put(key, properties.getProperty(key));
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return end + 1;
+    }
+
+    private boolean endsWithContinuation(int start, int end) {
+      int backslashes = 0;
+      for (int i = end - 1; i >= start && buffer.get(i) == '\\'; i--) {
+        backslashes++;
+      }
+      return backslashes % 2 == 1;
+    }
+
+    private void add(int keyStart, int keyEnd, int valueStart, int valueEnd) {
+      if (filter != ALL && !filter.test(decode(buffer, keyStart, keyEnd))) {
+        return;
+      }
+      int hash = 0;
+      for (int i = keyStart; i < keyEnd; i++) {
+        hash = 31 * hash + (buffer.get(i) & 0xFF);
+      }
+      hash = spread(hash);
+      if (!escaped.isEmpty()) {
+        escaped.remove(decode(buffer, keyStart, keyEnd));
+      }
+      int mask = table.length - 1;
+      int slot = hash & mask;
+      for (; table[slot] != 0; slot = (slot + 1) & mask) {
+        int offset = (table[slot] - 1) * FIELDS;
+        if (entries[offset + HASH] == hash && sameKey(offset, keyStart, keyEnd)) {
+          // last value wins, as in Properties
+          entries[offset + VALUE_START] = valueStart;
+          entries[offset + VALUE_END] = valueEnd;
+          return;
+        }
+      }
+      if (entries.length == size * FIELDS) {
+        entries = Arrays.copyOf(entries, entries.length * 2);
+      }
+      int offset = size * FIELDS;
+      entries[offset + KEY_START] = keyStart;
+      entries[offset + KEY_END] = keyEnd;
+      entries[offset + VALUE_START] = valueStart;
+      entries[offset + VALUE_END] = valueEnd;
+      entries[offset + HASH] = hash;
+      table[slot] = ++size;
+      if (size * 2 > table.length) {
+        resize();
+      }
+    }
+
+    private void remove(String key) {
+      int entry = find(entries, table, buffer, key);
+      if (entry >= 0) {
+        entries[entry * FIELDS + VALUE_START] = REMOVED;
+      }
+    }
+
+    private boolean sameKey(int offset, int keyStart, int keyEnd) {
+      int start = entries[offset + KEY_START];
+      int length = entries[offset + KEY_END] - start;
+      if (length != keyEnd - keyStart) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (buffer.get(start + i) != buffer.get(keyStart + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void resize() {
+      int[] newTable = new int[table.length * 2];
+      int mask = newTable.length - 1;
+      for (int entry = 0; entry < size; entry++) {
+        int slot = entries[entry * FIELDS + HASH] & mask;
+        while (newTable[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        newTable[slot] = entry + 1;
+      }
+      table = newTable;
+    }
+
+    private int skipWhitespace(int position) {
+      while (position < limit && isWhitespace(buffer.get(position))) {
+        position++;
+      }
+      return position;
+    }
+
+    private int endOfLine(int position) {
+      while (position < limit && !isEndOfLine(buffer.get(position))) {
+        position++;
+      }
+      return position;
+    }
+
+    private static boolean isKeyEnd(byte c) {
+      return isSeparator(c) || isWhitespace(c) || isEndOfLine(c) || c == '\\';
+    }
+
+    private static boolean isSeparator(byte c) {
+      return c == '=' || c == ':';
+    }
+
+    private static boolean isWhitespace(byte c) {
+      return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isEndOfLine(byte c) {
+      return c == '\n' || c == '\r';
+    }
+  }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+/**
+ * Receives every lookup of a source decorated with {@link Source#instrumented(Source, MetricsSink)}.
+ * It's called in the thread that reads the source, so implementations must be thread safe and fast,
+ * like {@link LookupMetrics}.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+  /**
+   * @param key full key
+   * @param found true if the source returned a value
+   * @param nanos time spent by the source, in nanoseconds
+   */
+  void lookup(String key, boolean found, long nanos);
+}
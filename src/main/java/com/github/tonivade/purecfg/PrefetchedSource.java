@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values of all the keys of a program resolved with a single {@link Source#getAll(java.util.Collection)} call.
+ * Keys that were not requested, like the elements of lists, are read from the original source. Reading a key
+ * whose lookup failed throws a {@link LookupFailedException}.
+ */
+final class PrefetchedSource implements Source {
+
+  private final Source source;
+  private final Set<String> requested;
+  private final Map<String, String> values;
+  private final Map<String, String> failures;
+
+  private PrefetchedSource(Source source, Set<String> requested,
+      Map<String, String> values, Map<String, String> failures) {
+    this.source = checkNonNull(source);
+    this.requested = checkNonNull(requested);
+    this.values = checkNonNull(values);
+    this.failures = checkNonNull(failures);
+  }
+
+  static Source prefetch(Source source, RequiredKeys keys) {
+    if (!source.supportsBatch() || keys.keys().isEmpty()) {
+      return source;
+    }
+    return new PrefetchedSource(source, keys.keys(), source.getAll(keys.keys()), Map.of());
+  }
+
+  /**
+   * @param source source used for the keys that were not requested
+   * @param requested keys already resolved
+   * @param values values of the requested keys that were found
+   */
+  static Source of(Source source, Set<String> requested, Map<String, String> values) {
+    return of(source, requested, values, Map.of());
+  }
+
+  /**
+   * @param failures error message of the requested keys whose lookup failed
+   */
+  static Source of(Source source, Set<String> requested, Map<String, String> values, Map<String, String> failures) {
+    return new PrefetchedSource(source, requested, values, failures);
+  }
+
+  @Override
+  public Option<String> getString(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key);
+    }
+    return source.getString(key);
+  }
+
+  @Override
+  public Option<Integer> getInteger(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(Integer::parseInt);
+    }
+    return source.getInteger(key);
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(Boolean::parseBoolean);
+    }
+    return source.getBoolean(key);
+  }
+
+  @Override
+  public Option<Long> getLong(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(Long::parseLong);
+    }
+    return source.getLong(key);
+  }
+
+  @Override
+  public Option<Double> getDouble(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(Double::parseDouble);
+    }
+    return source.getDouble(key);
+  }
+
+  @Override
+  public Option<Duration> getDuration(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(ValueParser::parseDuration);
+    }
+    return source.getDuration(key);
+  }
+
+  @Override
+  public Option<Long> getByteSize(String key) {
+    if (requested.contains(key)) {
+      return prefetched(key).map(ValueParser::parseByteSize);
+    }
+    return source.getByteSize(key);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+    return source.getIterable(key, type);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+    return source.getIterable(key, next);
+  }
+
+  @Override
+  public int[] getIntArray(String key) {
+    return source.getIntArray(key);
+  }
+
+  @Override
+  public long[] getLongArray(String key) {
+    return source.getLongArray(key);
+  }
+
+  @Override
+  public double[] getDoubleArray(String key) {
+    return source.getDoubleArray(key);
+  }
+
+  @Override
+  public boolean supportsEntries() {
+    return source.supportsEntries();
+  }
+
+  /**
+   * The prefetched values are strings parsed with the same rules of the default methods of {@link Source}.
+   */
+  @Override
+  public boolean parsesStrings() {
+    return true;
+  }
+
+  /**
+   * The prefetched values come from the original source, so its entries are the same.
+   */
+  @Override
+  public Map<String, Object> entries() {
+    return source.entries();
+  }
+
+  Source source() {
+    return source;
+  }
+
+  private Option<String> prefetched(String key) {
+    String failure = failures.get(key);
+    if (failure != null) {
+      throw new LookupFailedException(failure);
+    }
+    return Option.of(values.get(key));
+  }
+
+  @Override
+  public String toString() {
+    return "PrefetchedSource(" + source + ")";
+  }
+
+  /**
+   * The lookup of a key failed, it's reported as an error of the key instead of an invalid value.
+   */
+  static final class LookupFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    LookupFailedException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Result of {@link PureCFG#tracedRun(Source)}: the configuration and, for every key read, where the value
+ * comes from, the value as it was found in the source and the time spent reading and parsing it.</p>
+ *
+ * <p>While running the program, the trace is recorded in arrays indexed by the slot of each key in the
+ * compiled program, so tracing doesn't create any map, and every key is read only once. The entries are only
+ * created when they are requested with {@link #entries()} or {@link #render()}.</p>
+ *
+ * @param <T> type of the resulting configuration
+ */
+public final class Provenance<T> {
+
+  /**
+   * @param key full key, lists and arrays have a single entry with the key of the list
+   * @param found true if the value was found and parsed
+   * @param origin the source where the value was found, if the source is a {@link LayeredSource}, or decorates
+   * one, it's the layer, lists and arrays of layered sources don't have origin
+   * @param raw the value as it was found, before parsing it, if the source {@link Source#parsesStrings()},
+   * otherwise the value read converted to a string, lists and arrays don't have raw value
+   * @param nanos time spent reading and parsing the value
+   */
+  public record Entry(String key, boolean found, Option<Source> origin, Option<String> raw, long nanos) {
+
+    public Entry {
+      checkNonNull(key);
+      checkNonNull(origin);
+      checkNonNull(raw);
+    }
+  }
+
+  static final int NO_ORIGIN = -1;
+  static final Object NO_VALUE = new Object();
+
+  private final Option<T> value;
+  private final KeyPath[] keys;
+  private final List<Source> sources;
+  private final boolean[] found;
+  private final int[] origins;
+  private final Object[] raws;
+  private final long[] nanos;
+
+  Provenance(Option<T> value, KeyPath[] keys, List<Source> sources,
+      boolean[] found, int[] origins, Object[] raws, long[] nanos) {
+    this.value = checkNonNull(value);
+    this.keys = checkNonNull(keys);
+    this.sources = checkNonNull(sources);
+    this.found = checkNonNull(found);
+    this.origins = checkNonNull(origins);
+    this.raws = checkNonNull(raws);
+    this.nanos = checkNonNull(nanos);
+  }
+
+  /**
+   * @return the configuration, or none if some key is missing
+   */
+  public Option<T> value() {
+    return value;
+  }
+
+  public int size() {
+    return keys.length;
+  }
+
+  public Entry entry(int slot) {
+    return new Entry(keys[slot].toString(), found[slot],
+        origins[slot] == NO_ORIGIN ? Option.none() : Option.some(sources.get(origins[slot])),
+        raws[slot] instanceof String raw ? Option.some(raw) : Option.none(),
+        nanos[slot]);
+  }
+
+  /**
+   * @return one entry for every key read, in the same order they were read
+   */
+  public List<Entry> entries() {
+    List<Entry> result = new ArrayList<>(keys.length);
+    for (int i = 0; i < keys.length; i++) {
+      result.add(entry(i));
+    }
+    return result;
+  }
+
+  /**
+   * @return one line for every key, like {@code - server.port = 8080 (PropertiesSource, 1200ns)}
+   */
+  public String render() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < keys.length; i++) {
+      builder.append("- ").append(keys[i]);
+      if (!found[i]) {
+        builder.append(": not found\n");
+        continue;
+      }
+      if (raws[i] instanceof String raw) {
+        builder.append(" = ").append(raw);
+      }
+      builder.append(" (");
+      if (origins[i] != NO_ORIGIN) {
+        builder.append(sources.get(origins[i])).append(", ");
+      }
+      builder.append(nanos[i]).append("ns)\n");
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return "Provenance(" + value + ")";
+  }
+}
@@ -15,31 +15,41 @@ import com.github.tonivade.purefun.core.Function3;
 import com.github.tonivade.purefun.core.Function4;
 import com.github.tonivade.purefun.core.Function5;
 import com.github.tonivade.purefun.data.Finisher;
+import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.data.Pipeline;
 import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.data.SequenceOf;
 import com.github.tonivade.purefun.free.FreeAp;
 import com.github.tonivade.purefun.type.Const;
-import com.github.tonivade.purefun.type.ConstOf;
 import com.github.tonivade.purefun.type.Id;
 import com.github.tonivade.purefun.type.IdOf;
 import com.github.tonivade.purefun.type.Option;
 import com.github.tonivade.purefun.type.OptionOf;
 import com.github.tonivade.purefun.type.Validation;
-import com.github.tonivade.purefun.type.Validation.Result;
 import com.github.tonivade.purefun.type.ValidationOf;
 import com.github.tonivade.purefun.typeclasses.Applicative;
 import com.github.tonivade.purefun.typeclasses.FunctionK;
 import com.github.tonivade.purefun.typeclasses.Instance;
 import com.github.tonivade.purefun.typeclasses.Instances;
-import com.github.tonivade.purefun.typeclasses.Monoid;
 import com.github.tonivade.purefun.typeclasses.Semigroup;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @HigherKind
 public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T> {
 
   private final FreeAp<DSL<?>, T> value;
 
+  private volatile Option<CompiledCFG<T>> compiled = Option.none();
+
+  // paths of the keys resolved by the interpreters, shared by all the runs of this program
+  private final KeyCache keys = new KeyCache();
+
   private PureCFG(DSL<T> value) {
     this(FreeAp.lift(value));
   }
@@ -58,35 +68,161 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
     return new PureCFG<>(value.ap(apply.fix(PureCFGOf::toPureCFG).value));
   }
 
-  private <G extends Kind<G, ?>> Kind<G, T> foldMap(FunctionK<DSL<?>, G> functionK, Applicative<G> applicative) {
+  <G extends Kind<G, ?>> Kind<G, T> foldMap(FunctionK<DSL<?>, G> functionK, Applicative<G> applicative) {
     return value.foldMap(functionK, applicative);
   }
 
   public T unsafeRun(Source source) {
     return value.foldMap(
-        new Interpreter<>(new IdVisitor(Key.empty(), source)),
+        new Interpreter<>(new IdVisitor(KeyPath.root(), keys, prefetch(source))),
         Instances.applicative()).fix(IdOf::toId).value();
   }
 
+  /**
+   * @param source the source of the values
+   * @return the configuration, or none if some value is missing or cannot be parsed
+   */
   public Option<T> safeRun(Source source) {
     return value.foldMap(
-        new Interpreter<>(new OptionVisitor(Key.empty(), source)),
+        new Interpreter<>(new OptionVisitor(KeyPath.root(), keys, prefetch(source))),
         Instances.applicative()).fix(OptionOf::toOption);
   }
 
   public Validation<Validation.Result<String>, T> validatedRun(Source source) {
-    var instance = new Instance<Validation<Validation.Result<String>, ?>>() {};
-    Semigroup<Result<String>> semigroup = Validation.Result::concat;
+    Validation<ConfigErrors, T> result = validate(source, Integer.MAX_VALUE);
+    if (result.isValid()) {
+      return Validation.valid(result.get());
+    }
+    return Validation.invalid(result.getError().toResult());
+  }
+
+  /**
+   * Same as {@link #validatedRun(Source)} but errors include the key, the expected type and the reason,
+   * and values that cannot be parsed are reported as errors too. Only the first
+   * {@link ConfigErrors#DEFAULT_MAX_ERRORS} errors are kept.
+   *
+   * @param source the source of the values
+   * @return the configuration, or all the errors found
+   */
+  public Validation<ConfigErrors, T> validate(Source source) {
+    return validate(source, ConfigErrors.DEFAULT_MAX_ERRORS);
+  }
+
+  public Validation<ConfigErrors, T> validate(Source source, int maxErrors) {
+    var instance = new Instance<Validation<ConfigErrors, ?>>() {};
+    // created once per run, and shared by all the nested configs and lists
+    Semigroup<ConfigErrors> semigroup = ConfigErrors::concat;
+    Applicative<Validation<ConfigErrors, ?>> applicative = instance.applicative(semigroup);
     return value.foldMap(
-        new Interpreter<>(new ValidationVisitor(Key.empty(), source)),
-        instance.applicative(semigroup)).fix(ValidationOf::toValidation);
+        new Interpreter<>(new ValidationVisitor(KeyPath.root(), keys, prefetch(source), applicative, maxErrors)),
+        applicative).fix(ValidationOf::toValidation);
+  }
+
+  /**
+   * <p>Same as {@link #safeRun(Source)}, but also returns, for every key read, where the value comes from,
+   * the value before parsing it and the time spent reading it. If the source is a {@link LayeredSource},
+   * or an instrumented or reloadable source that decorates one, the origin is the layer that defines
+   * the key.</p>
+   *
+   * <p>It's executed with the compiled program, see {@link CompiledCFG#tracedRun(Source)}, and records
+   * the trace in arrays indexed by the slot of each key, so it's cheap enough to use it always.</p>
+   *
+   * @param source the source of the values
+   * @return the configuration and the provenance of every key
+   */
+  public Provenance<T> tracedRun(Source source) {
+    return compile().tracedRun(source);
+  }
+
+  /**
+   * Same as {@link #asyncRun(AsyncSource, int)} with at most {@link AsyncSource#DEFAULT_CONCURRENCY}
+   * lookups at the same time.
+   */
+  public CompletableFuture<T> asyncRun(AsyncSource source) {
+    return asyncRun(source, AsyncSource.DEFAULT_CONCURRENCY);
+  }
+
+  /**
+   * <p>Resolves all the keys of the program concurrently, so the time spent reading a slow source is
+   * close to the slowest lookup instead of the sum of all of them.</p>
+   *
+   * <p>If some values are missing or invalid, or their lookup fails, the future fails with a
+   * {@link NoSuchElementException} with all the errors found, like {@link #validatedRun(Source)}.</p>
+   *
+   * @param source the source of the values
+   * @param maxConcurrency max number of lookups at the same time
+   * @return a future completed with the configuration
+   */
+  public CompletableFuture<T> asyncRun(AsyncSource source, int maxConcurrency) {
+    return asyncValidate(source, maxConcurrency).thenApply(result -> {
+      if (result.isValid()) {
+        return result.get();
+      }
+      throw new NoSuchElementException(result.getError().errors().stream()
+          .map(ConfigError::message).collect(Collectors.joining(", ")));
+    });
+  }
+
+  /**
+   * Same as {@link #asyncRun(AsyncSource, int)}, but the future is completed with all the errors found,
+   * like {@link #validate(Source)}.
+   *
+   * @param source the source of the values
+   * @param maxConcurrency max number of lookups at the same time
+   * @return a future completed with the configuration, or all the errors found
+   */
+  public CompletableFuture<Validation<ConfigErrors, T>> asyncValidate(AsyncSource source, int maxConcurrency) {
+    return AsyncResolver.resolve(source, requiredKeys().keys(), maxConcurrency).thenApply(this::validate);
+  }
+
+  public CompiledCFG<T> compile() {
+    Option<CompiledCFG<T>> current = compiled;
+    if (current.isPresent()) {
+      return current.getOrElseThrow();
+    }
+    CompiledCFG<T> result = CompiledCFG.compile(this);
+    compiled = Option.some(result);
+    return result;
+  }
+
+  /**
+   * Reads all the values of the program from the source once, see {@link CompiledCFG#bind(Source)}.
+   *
+   * @param source the source of the values
+   * @return a snapshot that can be executed many times without reading the source again
+   */
+  public ConfigSnapshot<T> bind(Source source) {
+    return compile().bind(source);
+  }
+
+  /**
+   * Analyzes the program and returns all the keys it reads. It can be used to load only the
+   * values needed by the program, see {@link Source#fromProperties(String, RequiredKeys)}.
+   *
+   * @return the keys read by the program
+   */
+  public RequiredKeys requiredKeys() {
+    return compile().requiredKeys();
   }
 
   public String describe() {
-    var instance = new Instance<Const<String, ?>>() {};
-    return value.analyze(
-        new Interpreter<>(new ConstVisitor(Key.empty())),
-        instance.applicative(Monoid.string()));
+    return schema().render();
+  }
+
+  /**
+   * Analyzes the program and returns a tree with all the keys it reads, see {@link Schema}.
+   *
+   * @return the schema of the program
+   */
+  public Schema schema() {
+    var instance = new Instance<Const<Schema.Fields, ?>>() {};
+    Applicative<Const<Schema.Fields, ?>> applicative = instance.applicative(Schema.Fields.MONOID);
+    return new Schema(value.analyze(
+        new Interpreter<>(new SchemaVisitor(KeyPath.root(), keys, applicative)), applicative).toList());
+  }
+
+  private Source prefetch(Source source) {
+    return source.supportsBatch() ? PrefetchedSource.prefetch(source, requiredKeys()) : source;
   }
 
   public static <A, B, C> PureCFG<C> mapN(PureCFG<? extends A> fa, PureCFG<? extends B> fb,
@@ -147,6 +283,60 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
     return new PureCFG<>(new DSL.ReadBoolean(key));
   }
 
+  public static PureCFG<Long> readLong(String key) {
+    return new PureCFG<>(new DSL.ReadLong(key));
+  }
+
+  public static PureCFG<Double> readDouble(String key) {
+    return new PureCFG<>(new DSL.ReadDouble(key));
+  }
+
+  /**
+   * Reads a duration like {@code 30s}, {@code 500ms}, {@code 2h} or {@code PT1M}, a number without unit
+   * are milliseconds.
+   *
+   * @param key full key
+   * @return the program that reads the duration
+   */
+  public static PureCFG<Duration> readDuration(String key) {
+    return new PureCFG<>(new DSL.ReadDuration(key));
+  }
+
+  /**
+   * Reads a size in bytes like {@code 512}, {@code 64k} or {@code 10MB}, units are powers of 1024
+   * like in the memory options of the JVM.
+   *
+   * @param key full key
+   * @return the program that reads the number of bytes
+   */
+  public static PureCFG<Long> readByteSize(String key) {
+    return new PureCFG<>(new DSL.ReadByteSize(key));
+  }
+
+  /**
+   * Reads a list of numbers directly in an array, without boxing every element.
+   *
+   * @param key list key
+   * @return the program that reads the list, an empty array if the list doesn't exist
+   */
+  public static PureCFG<int[]> readIntArray(String key) {
+    return new PureCFG<>(new DSL.ReadIntArray(key));
+  }
+
+  /**
+   * @see #readIntArray(String)
+   */
+  public static PureCFG<long[]> readLongArray(String key) {
+    return new PureCFG<>(new DSL.ReadLongArray(key));
+  }
+
+  /**
+   * @see #readIntArray(String)
+   */
+  public static PureCFG<double[]> readDoubleArray(String key) {
+    return new PureCFG<>(new DSL.ReadDoubleArray(key));
+  }
+
   public static <T> PureCFG<Iterable<T>> readIterable(String key, Class<T> type) {
     return new PureCFG<>(new DSL.ReadPrimitiveIterable<>(key, type));
   }
@@ -155,10 +345,88 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
     return new PureCFG<>(new DSL.ReadIterable<>(key, PureCFGOf.toPureCFG(item)));
   }
 
+  /**
+   * <p>Same as {@link #readIterable(String, PureCFG)}, but the elements are read in parallel.</p>
+   *
+   * <p>The elements are read in the fork-join pool where the program is executed, or the common pool
+   * if it's not executed inside a fork-join pool. The result keeps the same order of the elements and,
+   * in {@code validatedRun}, the same errors in the same order than reading the elements one by one.
+   * It's only worth for big lists of complex elements.</p>
+   *
+   * @param key list key
+   * @param item program to read every element of the list
+   * @return the program that reads the list
+   */
+  public static <T> PureCFG<Iterable<T>> readParallelIterable(String key, PureCFG<? extends T> item) {
+    return new PureCFG<>(new DSL.ReadIterable<>(key, PureCFGOf.toPureCFG(item), true));
+  }
+
+  /**
+   * <p>Same as {@link #readIterable(String, PureCFG)}, but returns a random access view of the list where
+   * every element is read from the source the first time it's accessed, and then memoized. Only the keys
+   * of the elements are discovered when the program is executed, so it's useful for big lookup tables
+   * where only a few elements are used.</p>
+   *
+   * <p>Since the elements are read later, the source must be still available when the elements are accessed,
+   * and a missing key of an element is not reported by {@code safeRun} or {@code validatedRun}, instead a
+   * {@link java.util.NoSuchElementException} is thrown when the element is accessed.</p>
+   *
+   * @param key list key
+   * @param item program to read every element of the list
+   * @return the program that reads the list
+   */
+  public static <T> PureCFG<List<T>> readLazyIterable(String key, PureCFG<? extends T> item) {
+    return new PureCFG<>(new DSL.ReadLazyIterable<>(key, PureCFGOf.toPureCFG(item)));
+  }
+
   public static <T> PureCFG<T> readConfig(String key, PureCFG<? extends T> cfg) {
     return new PureCFG<>(new DSL.ReadConfig<>(key, PureCFGOf.toPureCFG(cfg)));
   }
 
+  /**
+   * <p>Reads all the programs and returns the values in an array, in the same order of the programs.</p>
+   *
+   * <p>Unlike {@code mapN}, it's not limited in the number of programs and the values are not combined
+   * with curried functions, so it's the preferred way to read records with many components.</p>
+   *
+   * @param fields programs to read
+   * @return the program that reads all the values
+   */
+  public static PureCFG<Object[]> product(List<? extends PureCFG<?>> fields) {
+    return new PureCFG<>(new DSL.ReadProduct("", List.copyOf(fields)));
+  }
+
+  /**
+   * Same as {@link #product(List)}, but the array is converted with the given function, usually
+   * the constructor of a record.
+   *
+   * @param fields programs to read
+   * @param constructor function that receives all the values in the same order of the programs
+   * @return the program that reads all the values and creates the result
+   */
+  public static <R> PureCFG<R> product(
+      List<? extends PureCFG<?>> fields, Function1<? super Object[], ? extends R> constructor) {
+    return product(fields).map(constructor);
+  }
+
+  /**
+   * <p>Derives a program from the components of a record. Every component is read with its name as key:
+   * {@code String}, {@code int}, {@code long}, {@code double}, {@code boolean}, their boxed types and
+   * {@code Duration} as values, {@code int[]}, {@code long[]} and {@code double[]} as arrays, other records
+   * as nested configs, and {@code List} or {@code Iterable} of any of them as lists.</p>
+   *
+   * <p>The record is introspected only the first time, the program is cached and the canonical constructor
+   * is called with a method handle, so it can be used for records that cannot be annotated with
+   * {@link PureConfig}.</p>
+   *
+   * @param type class of the record
+   * @return the program that reads the record
+   * @throws IllegalArgumentException if a component is not supported, or the record contains itself
+   */
+  public static <R extends Record> PureCFG<R> forRecord(Class<R> type) {
+    return RecordDerivation.forRecord(type);
+  }
+
   public static Applicative<PureCFG<?>> applicative() {
     return PureCFGApplicative.INSTANCE;
   }
@@ -179,11 +447,13 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
 
   private abstract static class AbstractVisitor<F extends Kind<F, ?>> implements DSL.Visitor<F> {
 
-    private final Key baseKey;
+    private final KeyPath baseKey;
+    private final KeyCache keys;
     private final Source source;
 
-    private AbstractVisitor(Key baseKey, Source source) {
+    private AbstractVisitor(KeyPath baseKey, KeyCache keys, Source source) {
       this.baseKey = checkNonNull(baseKey);
+      this.keys = checkNonNull(keys);
       this.source = checkNonNull(source);
     }
 
@@ -191,10 +461,16 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
       return source;
     }
 
-    protected String extend(DSL<?> value) {
-      return baseKey.extend(value);
+    protected KeyCache getKeys() {
+      return keys;
+    }
+
+    protected KeyPath extend(DSL<?> value) {
+      return keys.resolve(baseKey, value.key());
     }
 
+    protected abstract AbstractVisitor<F> withBaseKey(KeyPath baseKey);
+
     protected Option<String> getString(DSL<?> value) {
       return source.getString(extend(value));
     }
@@ -207,23 +483,73 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
       return source.getBoolean(extend(value));
     }
 
+    protected Option<Long> getLong(DSL<?> value) {
+      return source.getLong(extend(value));
+    }
+
+    protected Option<Double> getDouble(DSL<?> value) {
+      return source.getDouble(extend(value));
+    }
+
+    protected Option<Duration> getDuration(DSL<?> value) {
+      return source.getDuration(extend(value));
+    }
+
+    protected Option<Long> getByteSize(DSL<?> value) {
+      return source.getByteSize(extend(value));
+    }
+
+    protected int[] getIntArray(DSL<?> value) {
+      return source.getIntArray(extend(value).toString());
+    }
+
+    protected long[] getLongArray(DSL<?> value) {
+      return source.getLongArray(extend(value).toString());
+    }
+
+    protected double[] getDoubleArray(DSL<?> value) {
+      return source.getDoubleArray(extend(value).toString());
+    }
+
     protected <T> Sequence<Kind<F, T>> readAll(DSL.ReadPrimitiveIterable<T> value) {
-      Iterable<DSL<T>> properties = source.getIterable(extend(value), value.type());
+      Iterable<DSL<T>> properties = source.getIterable(extend(value).toString(), value.type());
+      // elements are returned with the full key
+      var elements = withBaseKey(KeyPath.root());
       return Pipeline.<DSL<T>>identity()
-          .map(dsl -> dsl.accept(this)).finish(Finisher.toImmutableArray(properties));
+          .map(dsl -> dsl.accept(elements)).finish(Finisher.toImmutableArray(properties));
     }
 
     protected <T> Sequence<Kind<F, T>> readAll(DSL.ReadIterable<T> value) {
-      Iterable<DSL<T>> properties = source.getIterable(extend(value), value.next());
+      Iterable<DSL<T>> properties = source.getIterable(extend(value).toString(), value.next());
+      // elements are returned with the full key
+      var elements = withBaseKey(KeyPath.root());
+      if (value.parallel()) {
+        // only the elements are read in parallel, they are combined later in the same order
+        List<DSL<T>> list = new ArrayList<>();
+        properties.forEach(list::add);
+        return ImmutableArray.from(list.parallelStream().<Kind<F, T>>map(dsl -> dsl.accept(elements)).toList());
+      }
       return Pipeline.<DSL<T>>identity()
-          .map(dsl -> dsl.accept(this)).finish(Finisher.toImmutableArray(properties));
+          .map(dsl -> dsl.accept(elements)).finish(Finisher.toImmutableArray(properties));
+    }
+
+    protected <T> List<T> readLazy(DSL.ReadLazyIterable<T> value) {
+      Iterable<DSL<T>> properties = source.getIterable(extend(value).toString(), value.next());
+      // elements are read later with the same semantics of unsafeRun
+      var elements = new IdVisitor(KeyPath.root(), keys, source);
+      return new LazyList<>(properties, dsl -> dsl.accept(elements).fix(IdOf::toId).value());
     }
   }
 
   private static final class IdVisitor extends AbstractVisitor<Id<?>> {
 
-    private IdVisitor(Key baseKey, Source source) {
-      super(baseKey, source);
+    private IdVisitor(KeyPath baseKey, KeyCache keys, Source source) {
+      super(baseKey, keys, source);
+    }
+
+    @Override
+    protected IdVisitor withBaseKey(KeyPath baseKey) {
+      return new IdVisitor(baseKey, getKeys(), getSource());
     }
 
     @Override
@@ -246,6 +572,26 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
       return Id.of(getBoolean(value).getOrElseThrow());
     }
 
+    @Override
+    public Id<Long> visit(DSL.ReadLong value) {
+      return Id.of(getLong(value).getOrElseThrow());
+    }
+
+    @Override
+    public Id<Double> visit(DSL.ReadDouble value) {
+      return Id.of(getDouble(value).getOrElseThrow());
+    }
+
+    @Override
+    public Id<Duration> visit(DSL.ReadDuration value) {
+      return Id.of(getDuration(value).getOrElseThrow());
+    }
+
+    @Override
+    public Id<Long> visit(DSL.ReadByteSize value) {
+      return Id.of(getByteSize(value).getOrElseThrow());
+    }
+
     @Override
     public <T> Id<Iterable<T>> visit(DSL.ReadIterable<T> value) {
       return Instances.<Sequence<?>>traverse()
@@ -260,20 +606,55 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
           .fix(IdOf::toId).map(SequenceOf::toSequence);
     }
 
+    @Override
+    public Id<int[]> visit(DSL.ReadIntArray value) {
+      return Id.of(getIntArray(value));
+    }
+
+    @Override
+    public Id<long[]> visit(DSL.ReadLongArray value) {
+      return Id.of(getLongArray(value));
+    }
+
+    @Override
+    public Id<double[]> visit(DSL.ReadDoubleArray value) {
+      return Id.of(getDoubleArray(value));
+    }
+
+    @Override
+    public <T> Id<List<T>> visit(DSL.ReadLazyIterable<T> value) {
+      return Id.of(readLazy(value));
+    }
+
     @Override
     public <A> Id<A> visit(DSL.ReadConfig<A> value) {
       return value.next().foldMap(nestedInterpreter(value), Instances.applicative()).fix(IdOf::toId);
     }
 
+    @Override
+    public Id<Object[]> visit(DSL.ReadProduct value) {
+      var interpreter = new Interpreter<>(withBaseKey(extend(value)));
+      Object[] result = new Object[value.fields().size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = value.fields().get(i).value.foldMap(interpreter, Instances.applicative()).fix(IdOf::toId).value();
+      }
+      return Id.of(result);
+    }
+
     private <A> Interpreter<Id<?>> nestedInterpreter(DSL.ReadConfig<A> value) {
-      return new Interpreter<>(new IdVisitor(Key.with(value.key()), getSource()));
+      return new Interpreter<>(withBaseKey(extend(value)));
     }
   }
 
   private static final class OptionVisitor extends AbstractVisitor<Option<?>> {
 
-    private OptionVisitor(Key baseKey, Source source) {
-      super(baseKey, source);
+    private OptionVisitor(KeyPath baseKey, KeyCache keys, Source source) {
+      super(baseKey, keys, source);
+    }
+
+    @Override
+    protected OptionVisitor withBaseKey(KeyPath baseKey) {
+      return new OptionVisitor(baseKey, getKeys(), getSource());
     }
 
     @Override
@@ -283,17 +664,37 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
 
     @Override
     public Option<String> visit(DSL.ReadString value) {
-      return getString(value);
+      return read(() -> getString(value));
     }
 
     @Override
     public Option<Integer> visit(DSL.ReadInt value) {
-      return getInteger(value);
+      return read(() -> getInteger(value));
     }
 
     @Override
     public Option<Boolean> visit(DSL.ReadBoolean value) {
-      return getBoolean(value);
+      return read(() -> getBoolean(value));
+    }
+
+    @Override
+    public Option<Long> visit(DSL.ReadLong value) {
+      return read(() -> getLong(value));
+    }
+
+    @Override
+    public Option<Double> visit(DSL.ReadDouble value) {
+      return read(() -> getDouble(value));
+    }
+
+    @Override
+    public Option<Duration> visit(DSL.ReadDuration value) {
+      return read(() -> getDuration(value));
+    }
+
+    @Override
+    public Option<Long> visit(DSL.ReadByteSize value) {
+      return read(() -> getByteSize(value));
     }
 
     @Override
@@ -310,152 +711,332 @@ public final class PureCFG<T> implements PureCFGOf<T>, Applicable<PureCFG<?>, T>
           .fix(OptionOf::toOption).map(s -> s.fix(SequenceOf::toSequence));
     }
 
+    @Override
+    public Option<int[]> visit(DSL.ReadIntArray value) {
+      return read(() -> Option.some(getIntArray(value)));
+    }
+
+    @Override
+    public Option<long[]> visit(DSL.ReadLongArray value) {
+      return read(() -> Option.some(getLongArray(value)));
+    }
+
+    @Override
+    public Option<double[]> visit(DSL.ReadDoubleArray value) {
+      return read(() -> Option.some(getDoubleArray(value)));
+    }
+
+    @Override
+    public <T> Option<List<T>> visit(DSL.ReadLazyIterable<T> value) {
+      return Option.some(readLazy(value));
+    }
+
     @Override
     public <A> Option<A> visit(DSL.ReadConfig<A> value) {
       return value.next().foldMap(nestedInterpreter(value), Instances.applicative()).fix(OptionOf::toOption);
     }
 
+    @Override
+    public Option<Object[]> visit(DSL.ReadProduct value) {
+      var interpreter = new Interpreter<>(withBaseKey(extend(value)));
+      Object[] result = new Object[value.fields().size()];
+      for (int i = 0; i < result.length; i++) {
+        Option<?> field = value.fields().get(i).value.foldMap(interpreter, Instances.applicative())
+            .fix(OptionOf::toOption);
+        if (!field.isPresent()) {
+          return Option.none();
+        }
+        result[i] = field.getOrElseThrow();
+      }
+      return Option.some(result);
+    }
+
     private <A> Interpreter<Option<?>> nestedInterpreter(DSL.ReadConfig<A> value) {
-      return new Interpreter<>(new OptionVisitor(Key.with(value.key()), getSource()));
+      return new Interpreter<>(withBaseKey(extend(value)));
+    }
+
+    /**
+     * A value that cannot be parsed is the same as a missing value, like in {@link ValidationVisitor}
+     * and {@link CompiledCFG}.
+     */
+    private static <T> Option<T> read(Supplier<Option<T>> reader) {
+      try {
+        return reader.get();
+      } catch (RuntimeException e) {
+        return Option.none();
+      }
     }
   }
 
-  private static final class ValidationVisitor
-      extends AbstractVisitor<Validation<Validation.Result<String>, ?>> {
+  private static final class ValidationVisitor extends AbstractVisitor<Validation<ConfigErrors, ?>> {
 
-    private ValidationVisitor(Key baseKey, Source source) {
-      super(baseKey, source);
+    private final Applicative<Validation<ConfigErrors, ?>> applicative;
+    private final int maxErrors;
+
+    private ValidationVisitor(KeyPath baseKey, KeyCache keys, Source source,
+        Applicative<Validation<ConfigErrors, ?>> applicative, int maxErrors) {
+      super(baseKey, keys, source);
+      this.applicative = checkNonNull(applicative);
+      this.maxErrors = maxErrors;
+    }
+
+    @Override
+    protected ValidationVisitor withBaseKey(KeyPath baseKey) {
+      return new ValidationVisitor(baseKey, getKeys(), getSource(), applicative, maxErrors);
     }
 
     @Override
-    public <T> Validation<Validation.Result<String>, T> visit(DSL.Pure<T> value) {
+    public <T> Validation<ConfigErrors, T> visit(DSL.Pure<T> value) {
       return Validation.valid(value.get());
     }
 
     @Override
-    public Validation<Validation.Result<String>, String> visit(DSL.ReadString value) {
-      return getString(value).fold(() -> invalid(value), this::valid);
+    public Validation<ConfigErrors, String> visit(DSL.ReadString value) {
+      return read(value, "String", () -> getString(value));
+    }
+
+    @Override
+    public Validation<ConfigErrors, Integer> visit(DSL.ReadInt value) {
+      return read(value, "Integer", () -> getInteger(value));
+    }
+
+    @Override
+    public Validation<ConfigErrors, Boolean> visit(DSL.ReadBoolean value) {
+      return read(value, "Boolean", () -> getBoolean(value));
     }
 
     @Override
-    public Validation<Validation.Result<String>, Integer> visit(DSL.ReadInt value) {
-      return getInteger(value).fold(() -> invalid(value), this::valid);
+    public Validation<ConfigErrors, Long> visit(DSL.ReadLong value) {
+      return read(value, "Long", () -> getLong(value));
     }
 
     @Override
-    public Validation<Validation.Result<String>, Boolean> visit(DSL.ReadBoolean value) {
-      return getBoolean(value).fold(() -> invalid(value), this::valid);
+    public Validation<ConfigErrors, Double> visit(DSL.ReadDouble value) {
+      return read(value, "Double", () -> getDouble(value));
     }
 
     @Override
-    public <T> Validation<Validation.Result<String>, Iterable<T>> visit(DSL.ReadIterable<T> value) {
-      var instance = new Instance<Validation<Validation.Result<String>, ?>>() {};
-      Semigroup<Result<String>> semigroup = Validation.Result::concat;
+    public Validation<ConfigErrors, Duration> visit(DSL.ReadDuration value) {
+      return read(value, "Duration", () -> getDuration(value));
+    }
+
+    @Override
+    public Validation<ConfigErrors, Long> visit(DSL.ReadByteSize value) {
+      return read(value, "ByteSize", () -> getByteSize(value));
+    }
+
+    @Override
+    public <T> Validation<ConfigErrors, Iterable<T>> visit(DSL.ReadIterable<T> value) {
       return Instances.<Sequence<?>>traverse()
-          .sequence(instance.applicative(semigroup), readAll(value))
+          .sequence(applicative, readAll(value))
           .fix(ValidationOf::toValidation).map(s -> s.fix(SequenceOf::toSequence));
     }
 
     @Override
-    public <T> Validation<Validation.Result<String>, Iterable<T>> visit(DSL.ReadPrimitiveIterable<T> value) {
-      var instance = new Instance<Validation<Validation.Result<String>, ?>>() {};
-      Semigroup<Result<String>> semigroup = Validation.Result::concat;
+    public <T> Validation<ConfigErrors, Iterable<T>> visit(DSL.ReadPrimitiveIterable<T> value) {
       return Instances.<Sequence<?>>traverse()
-          .sequence(instance.applicative(semigroup), readAll(value))
+          .sequence(applicative, readAll(value))
           .fix(ValidationOf::toValidation).map(s -> s.fix(SequenceOf::toSequence));
     }
 
     @Override
-    public <A> Validation<Validation.Result<String>, A> visit(DSL.ReadConfig<A> value) {
-      var instance = new Instance<Validation<Validation.Result<String>, ?>>() {};
-      Semigroup<Result<String>> semigroup = Validation.Result::concat;
-      return value.next().foldMap(nestedInterpreter(value), instance.applicative(semigroup))
-          .fix(ValidationOf::toValidation);
+    public Validation<ConfigErrors, int[]> visit(DSL.ReadIntArray value) {
+      return readArray(value, "int[]", () -> getIntArray(value));
+    }
+
+    @Override
+    public Validation<ConfigErrors, long[]> visit(DSL.ReadLongArray value) {
+      return readArray(value, "long[]", () -> getLongArray(value));
+    }
+
+    @Override
+    public Validation<ConfigErrors, double[]> visit(DSL.ReadDoubleArray value) {
+      return readArray(value, "double[]", () -> getDoubleArray(value));
+    }
+
+    @Override
+    public <T> Validation<ConfigErrors, List<T>> visit(DSL.ReadLazyIterable<T> value) {
+      return Validation.valid(readLazy(value));
+    }
+
+    @Override
+    public <A> Validation<ConfigErrors, A> visit(DSL.ReadConfig<A> value) {
+      return value.next().foldMap(nestedInterpreter(value), applicative).fix(ValidationOf::toValidation);
+    }
+
+    /**
+     * All the fields are read, and the errors are reported in the same order of the fields.
+     */
+    @Override
+    public Validation<ConfigErrors, Object[]> visit(DSL.ReadProduct value) {
+      var interpreter = new Interpreter<>(withBaseKey(extend(value)));
+      Object[] result = new Object[value.fields().size()];
+      List<ConfigErrors> errors = new ArrayList<>();
+      for (int i = 0; i < result.length; i++) {
+        Validation<ConfigErrors, ?> field = value.fields().get(i).value.foldMap(interpreter, applicative)
+            .fix(ValidationOf::toValidation);
+        if (field.isValid()) {
+          result[i] = field.get();
+        } else {
+          errors.add(field.getError());
+        }
+      }
+      if (errors.isEmpty()) {
+        return Validation.valid(result);
+      }
+      ConfigErrors all = errors.get(0);
+      for (int i = 1; i < errors.size(); i++) {
+        all = all.concat(errors.get(i));
+      }
+      return Validation.invalid(all);
+    }
+
+    private <A> Interpreter<Validation<ConfigErrors, ?>> nestedInterpreter(DSL.ReadConfig<A> value) {
+      return new Interpreter<>(withBaseKey(extend(value)));
     }
 
-    private <A> Interpreter<Validation<Validation.Result<String>, ?>> nestedInterpreter(DSL.ReadConfig<A> value) {
-      return new Interpreter<>(new ValidationVisitor(Key.with(value.key()), getSource()));
+    /**
+     * A value that cannot be parsed, or whose lookup failed, is reported as an error instead of throwing
+     * an exception.
+     */
+    private <T> Validation<ConfigErrors, T> read(DSL<T> value, String type, Supplier<Option<T>> reader) {
+      try {
+        return reader.get().fold(() -> invalid(value, type, ConfigError.NOT_FOUND), this::valid);
+      } catch (PrefetchedSource.LookupFailedException e) {
+        return invalid(value, type, ConfigError.LOOKUP_FAILED + " (" + e.getMessage() + ")");
+      } catch (RuntimeException e) {
+        return invalid(value, type, "invalid value (" + e.getMessage() + ")");
+      }
     }
 
-    private <T> Validation<Validation.Result<String>, T> invalid(DSL<T> value) {
-      return Validation.invalid(Validation.Result.of("key not found: " + extend(value)));
+    private <T> Validation<ConfigErrors, T> readArray(DSL<T> value, String type, Supplier<T> reader) {
+      return read(value, type, () -> Option.some(reader.get()));
     }
 
-    private <T> Validation<Validation.Result<String>, T> valid(T value) {
+    private <T> Validation<ConfigErrors, T> invalid(DSL<T> value, String type, String reason) {
+      return Validation.invalid(ConfigErrors.of(new ConfigError(extend(value).toString(), type, reason), maxErrors));
+    }
+
+    private <T> Validation<ConfigErrors, T> valid(T value) {
       return Validation.valid(value);
     }
   }
 
-  private static final class ConstVisitor implements DSL.Visitor<Const<String, ?>> {
+  private static final class SchemaVisitor implements DSL.Visitor<Const<Schema.Fields, ?>> {
 
-    private final Key baseKey;
+    private final KeyPath baseKey;
+    private final KeyCache keys;
+    private final Applicative<Const<Schema.Fields, ?>> applicative;
 
-    private ConstVisitor(Key baseKey) {
+    private SchemaVisitor(KeyPath baseKey, KeyCache keys, Applicative<Const<Schema.Fields, ?>> applicative) {
       this.baseKey = checkNonNull(baseKey);
+      this.keys = checkNonNull(keys);
+      this.applicative = checkNonNull(applicative);
     }
 
     @Override
-    public <T> Const<String, T> visit(DSL.Pure<T> value) {
-      return typeOf(value, String.valueOf(value.get()));
+    public <T> Const<Schema.Fields, T> visit(DSL.Pure<T> value) {
+      return typeOf(value, String.valueOf(value.get()), Schema.Kind.VALUE);
     }
 
     @Override
-    public Const<String, String> visit(DSL.ReadString value) {
-      return typeOf(value, "String");
+    public Const<Schema.Fields, String> visit(DSL.ReadString value) {
+      return typeOf(value, "String", Schema.Kind.VALUE);
     }
 
     @Override
-    public Const<String, Integer> visit(DSL.ReadInt value) {
-      return typeOf(value, "Integer");
+    public Const<Schema.Fields, Integer> visit(DSL.ReadInt value) {
+      return typeOf(value, "Integer", Schema.Kind.VALUE);
     }
 
     @Override
-    public Const<String, Boolean> visit(DSL.ReadBoolean value) {
-      return typeOf(value, "Boolean");
+    public Const<Schema.Fields, Boolean> visit(DSL.ReadBoolean value) {
+      return typeOf(value, "Boolean", Schema.Kind.VALUE);
     }
 
     @Override
-    public <T> Const<String, Iterable<T>> visit(DSL.ReadIterable<T> value) {
-      return visit(new DSL.ReadConfig<>(extend(value) + ".[]", value.next())).fix(ConstOf::toConst).retag();
+    public Const<Schema.Fields, Long> visit(DSL.ReadLong value) {
+      return typeOf(value, "Long", Schema.Kind.VALUE);
     }
 
     @Override
-    public <T> Const<String, Iterable<T>> visit(DSL.ReadPrimitiveIterable<T> value) {
-      return typeOf(value, value.type().getSimpleName() + "[]");
+    public Const<Schema.Fields, Double> visit(DSL.ReadDouble value) {
+      return typeOf(value, "Double", Schema.Kind.VALUE);
     }
 
     @Override
-    public <A> Const<String, A> visit(DSL.ReadConfig<A> value) {
-      var instance = new Instance<Const<String, ?>>() {};
-      return value.next().foldMap(
-          nestedInterpreter(value), instance.applicative(Monoid.string())).fix(ConstOf::toConst);
+    public Const<Schema.Fields, Duration> visit(DSL.ReadDuration value) {
+      return typeOf(value, "Duration", Schema.Kind.VALUE);
     }
 
-    private <T> Const<String, T> typeOf(DSL<T> value, String type) {
-      return Const.of("- " + extend(value) + ": " + type + "\n");
+    @Override
+    public Const<Schema.Fields, Long> visit(DSL.ReadByteSize value) {
+      return typeOf(value, "ByteSize", Schema.Kind.VALUE);
     }
 
-    private <A> Interpreter<Const<String, ?>> nestedInterpreter(DSL.ReadConfig<A> value) {
-      return new Interpreter<>(new ConstVisitor(Key.with(extend(value))));
+    @Override
+    public <T> Const<Schema.Fields, Iterable<T>> visit(DSL.ReadIterable<T> value) {
+      return nested(value, "List", Schema.Kind.LIST, value.next(), keys.resolve(extend(value), RequiredKeys.ANY_INDEX));
     }
 
-    private String extend(DSL<?> value) {
-      return baseKey.extend(value);
+    @Override
+    public <T> Const<Schema.Fields, Iterable<T>> visit(DSL.ReadPrimitiveIterable<T> value) {
+      return typeOf(value, value.type().getSimpleName() + "[]", Schema.Kind.LIST);
+    }
+
+    @Override
+    public Const<Schema.Fields, int[]> visit(DSL.ReadIntArray value) {
+      return typeOf(value, "int[]", Schema.Kind.LIST);
     }
-  }
 
-  @FunctionalInterface
-  private interface Key {
+    @Override
+    public Const<Schema.Fields, long[]> visit(DSL.ReadLongArray value) {
+      return typeOf(value, "long[]", Schema.Kind.LIST);
+    }
+
+    @Override
+    public Const<Schema.Fields, double[]> visit(DSL.ReadDoubleArray value) {
+      return typeOf(value, "double[]", Schema.Kind.LIST);
+    }
 
-    String extend(DSL<?> dsl);
+    @Override
+    public <T> Const<Schema.Fields, List<T>> visit(DSL.ReadLazyIterable<T> value) {
+      return nested(value, "List", Schema.Kind.LIST, value.next(), keys.resolve(extend(value), RequiredKeys.ANY_INDEX));
+    }
+
+    @Override
+    public <A> Const<Schema.Fields, A> visit(DSL.ReadConfig<A> value) {
+      if (value.key().isEmpty()) {
+        return Const.of(fields(value.next(), baseKey));
+      }
+      return nested(value, "Config", Schema.Kind.CONFIG, value.next(), extend(value));
+    }
+
+    @Override
+    public Const<Schema.Fields, Object[]> visit(DSL.ReadProduct value) {
+      Schema.Fields result = Schema.Fields.MONOID.zero();
+      for (PureCFG<?> field : value.fields()) {
+        result = result.concat(fields(field, extend(value)));
+      }
+      return Const.of(result);
+    }
+
+    private <T> Const<Schema.Fields, T> typeOf(DSL<T> value, String type, Schema.Kind kind) {
+      return Const.of(Schema.Fields.of(new Schema.Field(extend(value).toString(), type, kind, List.of())));
+    }
+
+    private <T> Const<Schema.Fields, T> nested(
+        DSL<T> value, String type, Schema.Kind kind, PureCFG<?> next, KeyPath key) {
+      var field = new Schema.Field(extend(value).toString(), type, kind, fields(next, key).toList());
+      return Const.of(Schema.Fields.of(field));
+    }
 
-    static Key with(String baseKey) {
-      checkNonNull(baseKey);
-      return dsl -> baseKey + "." + dsl.key();
+    private Schema.Fields fields(PureCFG<?> next, KeyPath key) {
+      return next.value.analyze(new Interpreter<>(new SchemaVisitor(key, keys, applicative)), applicative);
     }
 
-    static Key empty() {
-      return DSL::key;
+    private KeyPath extend(DSL<?> value) {
+      return keys.resolve(baseKey, value.key());
     }
   }
 
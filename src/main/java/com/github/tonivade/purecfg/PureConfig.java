@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Generates a reader for a record, with the {@code purecfg-processor} annotation processor.</p>
+ *
+ * <p>For a record {@code Server}, the class {@code ServerReader} is generated in the same package with
+ * these methods:</p>
+ *
+ * <ul>
+ *   <li>{@code unsafeRun(Source)} and {@code safeRun(Source)}: read every component with a constant key
+ *   and call the constructor, without any interpreter.</li>
+ *   <li>{@code program()}: an equivalent {@link PureCFG} that can be composed with other programs.</li>
+ *   <li>{@code unsafeRun(Source, String)} and {@code program(String)}: the same but with another key.</li>
+ * </ul>
+ *
+ * <p>Components can be {@code String}, {@code int}, {@code long}, {@code double}, {@code boolean}, their boxed
+ * types, {@code Duration}, {@code int[]}, {@code long[]}, {@code double[]} or other records annotated with
+ * {@code @PureConfig}, read as nested configs.</p>
+ *
+ * <p>The processor is published as {@code com.github.tonivade:purecfg-processor}, with the same version as
+ * {@code purecfg}, and it has to be added to the annotation processor path, for example with gradle:</p>
+ *
+ * <pre>
+ *   implementation 'com.github.tonivade:purecfg:${version}'
+ *   annotationProcessor 'com.github.tonivade:purecfg-processor:${version}'
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface PureConfig {
+
+  /**
+   * @return key of the config, by default the components are read without prefix
+   */
+  String value() default "";
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>Derives a program from the components of a record, see {@link PureCFG#forRecord(Class)}.</p>
+ *
+ * <p>Every record is introspected only once, the program and the handle of the canonical constructor are
+ * cached by class, so deriving the same record again, or running the program, doesn't use reflection.</p>
+ */
+final class RecordDerivation {
+
+  private static final Set<Class<?>> ELEMENT_TYPES =
+      Set.of(String.class, Integer.class, Long.class, Double.class, Boolean.class, Duration.class);
+
+  private static final ClassValue<PureCFG<?>> PROGRAMS = new ClassValue<>() {
+    @Override
+    protected PureCFG<?> computeValue(Class<?> type) {
+      return derive(type);
+    }
+  };
+
+  private RecordDerivation() { }
+
+  @SuppressWarnings("unchecked")
+  static <R extends Record> PureCFG<R> forRecord(Class<R> type) {
+    return (PureCFG<R>) PROGRAMS.get(checkNonNull(type));
+  }
+
+  private static PureCFG<?> derive(Class<?> type) {
+    checkNotRecursive(type, new HashSet<>());
+    RecordComponent[] components = type.getRecordComponents();
+    List<PureCFG<?>> fields = new ArrayList<>(components.length);
+    Class<?>[] types = new Class<?>[components.length];
+    for (int i = 0; i < components.length; i++) {
+      fields.add(field(components[i]));
+      types[i] = components[i].getType();
+    }
+    MethodHandle constructor = constructor(type, types);
+    return PureCFG.product(fields, values -> newInstance(constructor, values));
+  }
+
+  private static PureCFG<?> field(RecordComponent component) {
+    String key = component.getName();
+    Class<?> type = component.getType();
+    if (type == String.class) {
+      return PureCFG.readString(key);
+    }
+    if (type == int.class || type == Integer.class) {
+      return PureCFG.readInt(key);
+    }
+    if (type == long.class || type == Long.class) {
+      return PureCFG.readLong(key);
+    }
+    if (type == double.class || type == Double.class) {
+      return PureCFG.readDouble(key);
+    }
+    if (type == boolean.class || type == Boolean.class) {
+      return PureCFG.readBoolean(key);
+    }
+    if (type == Duration.class) {
+      return PureCFG.readDuration(key);
+    }
+    if (type == int[].class) {
+      return PureCFG.readIntArray(key);
+    }
+    if (type == long[].class) {
+      return PureCFG.readLongArray(key);
+    }
+    if (type == double[].class) {
+      return PureCFG.readDoubleArray(key);
+    }
+    if (type.isRecord()) {
+      return PureCFG.readConfig(key, PROGRAMS.get(type));
+    }
+    if (type == List.class) {
+      return iterable(key, elementType(component)).map(RecordDerivation::toList);
+    }
+    if (type == Iterable.class) {
+      return iterable(key, elementType(component));
+    }
+    throw new IllegalArgumentException("type not supported: " + component);
+  }
+
+  private static PureCFG<? extends Iterable<?>> iterable(String key, Class<?> element) {
+    if (element.isRecord()) {
+      return PureCFG.readIterable(key, PROGRAMS.get(element));
+    }
+    return PureCFG.readIterable(key, element);
+  }
+
+  private static Class<?> elementType(RecordComponent component) {
+    if (component.getGenericType() instanceof ParameterizedType parameterized
+        && parameterized.getActualTypeArguments()[0] instanceof Class<?> element
+        && (element.isRecord() || ELEMENT_TYPES.contains(element))) {
+      return element;
+    }
+    throw new IllegalArgumentException("type not supported: " + component);
+  }
+
+  /**
+   * A record that contains itself, directly or in a list, cannot be derived.
+   */
+  private static void checkNotRecursive(Class<?> type, Set<Class<?>> visiting) {
+    if (!type.isRecord()) {
+      throw new IllegalArgumentException("not a record: " + type.getName());
+    }
+    if (!visiting.add(type)) {
+      throw new IllegalArgumentException("recursive record: " + type.getName());
+    }
+    for (RecordComponent component : type.getRecordComponents()) {
+      Class<?> nested = component.getType();
+      if (nested.isRecord()) {
+        checkNotRecursive(nested, visiting);
+      } else if (component.getGenericType() instanceof ParameterizedType parameterized) {
+        for (Type argument : parameterized.getActualTypeArguments()) {
+          if (argument instanceof Class<?> element && element.isRecord()) {
+            checkNotRecursive(element, visiting);
+          }
+        }
+      }
+    }
+    visiting.remove(type);
+  }
+
+  /**
+   * The handle receives all the values in an array, in the same order of the components.
+   */
+  private static MethodHandle constructor(Class<?> type, Class<?>[] types) {
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor(types);
+      // needed for records that are not public, it only works if the package is open to this module
+      constructor.trySetAccessible();
+      return MethodHandles.lookup().unreflectConstructor(constructor)
+          .asSpreader(Object[].class, types.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalArgumentException("cannot access the canonical constructor of " + type.getName(), e);
+    }
+  }
+
+  private static Object newInstance(MethodHandle constructor, Object[] values) {
+    try {
+      return (Object) constructor.invokeExact(values);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static List<Object> toList(Iterable<?> iterable) {
+    List<Object> result = new ArrayList<>();
+    iterable.forEach(result::add);
+    return Collections.unmodifiableList(result);
+  }
+}
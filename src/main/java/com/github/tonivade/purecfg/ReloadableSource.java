@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.type.Option;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * <p>Source backed by a file that is loaded again every time the file changes.</p>
+ *
+ * <p>A background thread watches the directory of the file and, once there are no more changes for the
+ * configured debounce time, parses the file and replaces the current snapshot. Readers never block and
+ * always see a fully parsed snapshot. If the new content cannot be parsed, the previous snapshot is kept, the
+ * error is logged and it's available with {@link #lastError()} until the file is loaded successfully.</p>
+ *
+ * <p>Every lookup goes to the latest snapshot, so a program run while the file is reloaded could read keys
+ * from both versions. Use {@link #snapshot()} to run a program against a single version.</p>
+ */
+public final class ReloadableSource implements Source, AutoCloseable {
+
+  private static final Logger LOGGER = System.getLogger(ReloadableSource.class.getName());
+
+  private final Path file;
+  private final Duration debounce;
+  private final Function1<Path, Source> loader;
+  private final WatchService watcher;
+  private final Thread thread;
+
+  private volatile Source current;
+  private volatile Option<RuntimeException> lastError = Option.none();
+
+  ReloadableSource(Path file, Duration debounce, Function1<Path, Source> loader) {
+    this.file = checkNonNull(file).toAbsolutePath();
+    this.debounce = checkNonNull(debounce);
+    this.loader = checkNonNull(loader);
+    this.current = loader.apply(this.file);
+    this.watcher = watch(this.file);
+    this.thread = Thread.ofPlatform().daemon().name("purecfg-watch-" + this.file.getFileName()).start(this::watch);
+  }
+
+  /**
+   * @return the last version of the file successfully loaded
+   */
+  public Source snapshot() {
+    return current;
+  }
+
+  /**
+   * @return the error of the last reload if it failed, or none if the last version of the file was loaded
+   */
+  public Option<RuntimeException> lastError() {
+    return lastError;
+  }
+
+  @Override
+  public Option<String> getString(String key) {
+    return current.getString(key);
+  }
+
+  @Override
+  public Option<Integer> getInteger(String key) {
+    return current.getInteger(key);
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(String key) {
+    return current.getBoolean(key);
+  }
+
+  @Override
+  public Option<String> getString(KeyPath key) {
+    return current.getString(key);
+  }
+
+  @Override
+  public Option<Integer> getInteger(KeyPath key) {
+    return current.getInteger(key);
+  }
+
+  @Override
+  public Option<Boolean> getBoolean(KeyPath key) {
+    return current.getBoolean(key);
+  }
+
+  @Override
+  public Option<Long> getLong(String key) {
+    return current.getLong(key);
+  }
+
+  @Override
+  public Option<Double> getDouble(String key) {
+    return current.getDouble(key);
+  }
+
+  @Override
+  public Option<Duration> getDuration(String key) {
+    return current.getDuration(key);
+  }
+
+  @Override
+  public Option<Long> getByteSize(String key) {
+    return current.getByteSize(key);
+  }
+
+  @Override
+  public Option<Long> getLong(KeyPath key) {
+    return current.getLong(key);
+  }
+
+  @Override
+  public Option<Double> getDouble(KeyPath key) {
+    return current.getDouble(key);
+  }
+
+  @Override
+  public Option<Duration> getDuration(KeyPath key) {
+    return current.getDuration(key);
+  }
+
+  @Override
+  public Option<Long> getByteSize(KeyPath key) {
+    return current.getByteSize(key);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+    return current.getIterable(key, type);
+  }
+
+  @Override
+  public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+    return current.getIterable(key, next);
+  }
+
+  @Override
+  public int[] getIntArray(String key) {
+    return current.getIntArray(key);
+  }
+
+  @Override
+  public long[] getLongArray(String key) {
+    return current.getLongArray(key);
+  }
+
+  @Override
+  public double[] getDoubleArray(String key) {
+    return current.getDoubleArray(key);
+  }
+
+  @Override
+  public boolean supportsEntries() {
+    return current.supportsEntries();
+  }
+
+  @Override
+  public boolean parsesStrings() {
+    return current.parsesStrings();
+  }
+
+  @Override
+  public Map<String, Object> entries() {
+    return current.entries();
+  }
+
+  @Override
+  public void close() {
+    try {
+      watcher.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ReloadableSource(" + file + ")";
+  }
+
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watcher.take();
+        boolean changed = isChanged(key);
+        key.reset();
+        if (changed) {
+          awaitQuiet();
+          reload();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // source closed
+    }
+  }
+
+  /**
+   * Editors usually write a file several times when saving, so wait until the file
+   * has not changed for the debounce time before reading it again.
+   */
+  private void awaitQuiet() throws InterruptedException {
+    long deadline = System.nanoTime() + debounce.toNanos();
+    for (long remaining = debounce.toNanos(); remaining > 0; remaining = deadline - System.nanoTime()) {
+      WatchKey key = watcher.poll(remaining, NANOSECONDS);
+      if (key == null) {
+        return;
+      }
+      if (isChanged(key)) {
+        deadline = System.nanoTime() + debounce.toNanos();
+      }
+      key.reset();
+    }
+  }
+
+  private void reload() {
+    try {
+      current = loader.apply(file);
+      lastError = Option.none();
+    } catch (RuntimeException e) {
+      // keep the previous snapshot until the file is fixed
+      lastError = Option.some(e);
+      LOGGER.log(Level.WARNING, "cannot reload file " + file + ", the previous version is kept", e);
+    }
+  }
+
+  /**
+   * The watch service is closed if the directory cannot be registered.
+   */
+  private static WatchService watch(Path file) {
+    try {
+      WatchService watcher = file.getFileSystem().newWatchService();
+      try {
+        checkNonNull(file.getParent()).register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+        return watcher;
+      } catch (IOException | RuntimeException e) {
+        try {
+          watcher.close();
+        } catch (IOException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean isChanged(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW
+          || (event.context() instanceof Path path && path.equals(file.getFileName()))) {
+        changed = true;
+      }
+    }
+    return changed;
+  }
+}
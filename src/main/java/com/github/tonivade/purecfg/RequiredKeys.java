@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p>Set of keys read by a program, obtained with {@link PureCFG#requiredKeys()}.</p>
+ *
+ * <p>Elements of lists are represented with {@code []}, the same way as {@link PureCFG#describe()},
+ * for example {@code server.users.[].name} matches {@code server.users.0.name}, {@code server.users.1.name}
+ * and so on. Sources can use it to skip the values that will never be read.</p>
+ */
+public final class RequiredKeys {
+
+  static final String ANY_INDEX = "[]";
+
+  private final Node root;
+  private final Set<String> patterns;
+  private final Set<String> keys;
+
+  private RequiredKeys(Node root, Set<String> patterns, Set<String> keys) {
+    this.root = checkNonNull(root);
+    this.patterns = Collections.unmodifiableSet(checkNonNull(patterns));
+    this.keys = Collections.unmodifiableSet(checkNonNull(keys));
+  }
+
+  public Set<String> patterns() {
+    return patterns;
+  }
+
+  /**
+   * @return only the keys that are known before reading the source, so it doesn't include the elements of lists
+   */
+  public Set<String> keys() {
+    return keys;
+  }
+
+  public boolean contains(String key) {
+    return matches(root, key, 0);
+  }
+
+  @Override
+  public String toString() {
+    return "RequiredKeys" + patterns;
+  }
+
+  /**
+   * Finds the required key that matches the given key ignoring case, like {@code service.maxsize} and
+   * {@code service.maxSize}.
+   *
+   * @return the key with the same case as the required key, or the same key if no required key matches
+   */
+  String withCaseOf(String key) {
+    StringBuilder result = new StringBuilder(key.length());
+    return withCaseOf(root, key, 0, result) ? result.toString() : key;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  private static boolean matches(Node node, String key, int start) {
+    if (start > key.length()) {
+      return node.terminal;
+    }
+    int end = key.indexOf('.', start);
+    if (end < 0) {
+      end = key.length();
+    }
+    String segment = key.substring(start, end);
+    Node next = node.children.get(segment);
+    if (next != null && matches(next, key, end + 1)) {
+      return true;
+    }
+    Node any = node.children.get(ANY_INDEX);
+    return any != null && Source.PropertiesSource.isIndex(segment, 0) && matches(any, key, end + 1);
+  }
+
+  private static boolean withCaseOf(Node node, String key, int start, StringBuilder result) {
+    if (start > key.length()) {
+      return node.terminal;
+    }
+    int end = key.indexOf('.', start);
+    if (end < 0) {
+      end = key.length();
+    }
+    String segment = key.substring(start, end);
+    int length = result.length();
+    for (Map.Entry<String, Node> child : node.children.entrySet()) {
+      if (!child.getKey().equals(ANY_INDEX) && child.getKey().equalsIgnoreCase(segment)) {
+        append(result, child.getKey());
+        if (withCaseOf(child.getValue(), key, end + 1, result)) {
+          return true;
+        }
+        result.setLength(length);
+      }
+    }
+    Node any = node.children.get(ANY_INDEX);
+    if (any != null && Source.PropertiesSource.isIndex(segment, 0)) {
+      append(result, segment);
+      if (withCaseOf(any, key, end + 1, result)) {
+        return true;
+      }
+      result.setLength(length);
+    }
+    return false;
+  }
+
+  private static void append(StringBuilder result, String segment) {
+    if (result.length() > 0) {
+      result.append('.');
+    }
+    result.append(segment);
+  }
+
+  static final class Builder {
+
+    private final Node root = new Node();
+    private final Set<String> patterns = new TreeSet<>();
+    private final Set<String> keys = new HashSet<>();
+
+    private Builder() { }
+
+    Builder add(KeyPath key) {
+      Node current = root;
+      for (String segment : key.segments()) {
+        Node next = current.children.get(segment);
+        if (next == null) {
+          next = new Node();
+          current.children.put(segment, next);
+        }
+        current = next;
+      }
+      current.terminal = true;
+      patterns.add(key.toString());
+      if (!key.segments().contains(ANY_INDEX)) {
+        keys.add(key.toString());
+      }
+      return this;
+    }
+
+    RequiredKeys build() {
+      return new RequiredKeys(root, patterns, keys);
+    }
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private boolean terminal;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.typeclasses.Monoid;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>Tree of the keys read by a program, obtained with {@link PureCFG#schema()}.</p>
+ *
+ * <p>It can be rendered as text, in the same format used by {@link PureCFG#describe()}, or exported
+ * as json to be consumed by other tools.</p>
+ */
+public final class Schema {
+
+  public enum Kind {
+    VALUE, LIST, CONFIG
+  }
+
+  /**
+   * @param key full key, elements of lists use {@code []} as index
+   * @param type type of the value, like {@code Integer} or {@code String[]}
+   * @param kind if it's a single value, a list or a nested config
+   * @param children fields of nested configs or elements of lists
+   */
+  public record Field(String key, String type, Kind kind, List<Field> children) {
+
+    public Field {
+      checkNonNull(key);
+      checkNonNull(type);
+      checkNonNull(kind);
+      children = List.copyOf(children);
+    }
+  }
+
+  private final List<Field> fields;
+
+  Schema(List<Field> fields) {
+    this.fields = List.copyOf(fields);
+  }
+
+  public List<Field> fields() {
+    return fields;
+  }
+
+  /**
+   * @return one line for each value, like {@code - server.port: Integer}
+   */
+  public String render() {
+    StringBuilder builder = new StringBuilder();
+    render(fields, builder);
+    return builder.toString();
+  }
+
+  /**
+   * @return the fields as a json array, every field is an object with {@code key}, {@code type},
+   * {@code kind} and {@code children}
+   */
+  public String toJson() {
+    StringBuilder builder = new StringBuilder();
+    toJson(fields, builder);
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return "Schema" + fields;
+  }
+
+  private static void render(List<Field> fields, StringBuilder builder) {
+    for (Field field : fields) {
+      if (field.children().isEmpty()) {
+        builder.append("- ").append(field.key()).append(": ").append(field.type()).append('\n');
+      } else {
+        render(field.children(), builder);
+      }
+    }
+  }
+
+  private static void toJson(List<Field> fields, StringBuilder builder) {
+    builder.append('[');
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append("{\"key\":");
+      quote(field.key(), builder);
+      builder.append(",\"type\":");
+      quote(field.type(), builder);
+      builder.append(",\"kind\":");
+      quote(field.kind().name().toLowerCase(Locale.ROOT), builder);
+      builder.append(",\"children\":");
+      toJson(field.children(), builder);
+      builder.append('}');
+    }
+    builder.append(']');
+  }
+
+  private static void quote(String value, StringBuilder builder) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+        }
+      }
+    }
+    builder.append('"');
+  }
+
+  /**
+   * Fields collected while analyzing a program. Joining two instances only creates a new node,
+   * so the whole program is analyzed in linear time.
+   */
+  static final class Fields {
+
+    static final Monoid<Fields> MONOID = new Monoid<>() {
+      @Override
+      public Fields zero() {
+        return EMPTY;
+      }
+
+      @Override
+      public Fields combine(Fields t1, Fields t2) {
+        return t1.concat(t2);
+      }
+    };
+
+    private static final Fields EMPTY = new Fields(new Empty(), 0);
+
+    private final Node root;
+    private final int size;
+
+    private Fields(Node root, int size) {
+      this.root = checkNonNull(root);
+      this.size = size;
+    }
+
+    static Fields of(Field field) {
+      return new Fields(new Leaf(field), 1);
+    }
+
+    static Fields of(List<Field> fields) {
+      Fields result = EMPTY;
+      for (Field field : fields) {
+        result = result.concat(of(field));
+      }
+      return result;
+    }
+
+    Fields concat(Fields other) {
+      if (size == 0) {
+        return other;
+      }
+      if (other.size == 0) {
+        return this;
+      }
+      return new Fields(new Concat(root, other.root), size + other.size);
+    }
+
+    List<Field> toList() {
+      List<Field> result = new ArrayList<>(size);
+      Deque<Node> pending = new ArrayDeque<>();
+      pending.push(root);
+      while (!pending.isEmpty()) {
+        switch (pending.pop()) {
+          case Empty empty -> { }
+          case Leaf leaf -> result.add(leaf.field());
+          case Concat concat -> {
+            pending.push(concat.right());
+            pending.push(concat.left());
+          }
+        }
+      }
+      return result;
+    }
+
+    private sealed interface Node { }
+
+    private record Leaf(Field field) implements Node { }
+
+    private record Empty() implements Node { }
+
+    private record Concat(Node left, Node right) implements Node { }
+  }
+}
@@ -7,17 +7,26 @@ package com.github.tonivade.purecfg;
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 import static com.github.tonivade.purefun.data.ImmutableArray.toImmutableArray;
 import static java.lang.Boolean.TRUE;
+import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.type.Option;
-import com.github.tonivade.purefun.type.Try;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import org.tomlj.Toml;
 import org.tomlj.TomlArray;
 import org.tomlj.TomlParseResult;
@@ -29,9 +38,186 @@ public interface Source {
   Option<Integer> getInteger(String key);
   Option<Boolean> getBoolean(String key);
 
+  default Option<String> getString(KeyPath key) {
+    return getString(key.toString());
+  }
+
+  default Option<Integer> getInteger(KeyPath key) {
+    return getInteger(key.toString());
+  }
+
+  default Option<Boolean> getBoolean(KeyPath key) {
+    return getBoolean(key.toString());
+  }
+
+  default Option<Long> getLong(String key) {
+    return getString(key).map(Long::parseLong);
+  }
+
+  default Option<Double> getDouble(String key) {
+    return getString(key).map(Double::parseDouble);
+  }
+
+  /**
+   * Reads a duration like {@code 30s}, {@code 500ms} or {@code PT1M}, a number without unit are milliseconds.
+   *
+   * @param key full key
+   * @return the duration, if present
+   */
+  default Option<Duration> getDuration(String key) {
+    return getString(key).map(ValueParser::parseDuration);
+  }
+
+  /**
+   * Reads a size in bytes like {@code 512}, {@code 64k} or {@code 10MB}, units are powers of 1024.
+   *
+   * @param key full key
+   * @return the number of bytes, if present
+   */
+  default Option<Long> getByteSize(String key) {
+    return getString(key).map(ValueParser::parseByteSize);
+  }
+
+  default Option<Long> getLong(KeyPath key) {
+    return getLong(key.toString());
+  }
+
+  default Option<Double> getDouble(KeyPath key) {
+    return getDouble(key.toString());
+  }
+
+  default Option<Duration> getDuration(KeyPath key) {
+    return getDuration(key.toString());
+  }
+
+  default Option<Long> getByteSize(KeyPath key) {
+    return getByteSize(key.toString());
+  }
+
   <T> Iterable<DSL<T>> getIterable(String key, Class<T> type);
   <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next);
 
+  /**
+   * Reads a list of numbers directly in an array. By default it reads every element with
+   * {@link #getInteger(String)}, sources should override it to avoid boxing every element.
+   *
+   * @param key list key
+   * @return the elements of the list, or an empty array if the list doesn't exist
+   * @throws NoSuchElementException if an element of the list is missing
+   * @throws IllegalArgumentException if an element of the list is not an integer or it's out of range,
+   * like {@link NumberFormatException}
+   */
+  default int[] getIntArray(String key) {
+    List<String> keys = elementKeys(key);
+    int[] result = new int[keys.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = element(keys.get(i), this::getInteger);
+    }
+    return result;
+  }
+
+  /**
+   * @see #getIntArray(String)
+   */
+  default long[] getLongArray(String key) {
+    List<String> keys = elementKeys(key);
+    long[] result = new long[keys.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Long.parseLong(element(keys.get(i), this::getString));
+    }
+    return result;
+  }
+
+  /**
+   * @see #getIntArray(String)
+   */
+  default double[] getDoubleArray(String key) {
+    List<String> keys = elementKeys(key);
+    double[] result = new double[keys.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Double.parseDouble(element(keys.get(i), this::getString));
+    }
+    return result;
+  }
+
+  private List<String> elementKeys(String key) {
+    List<String> keys = new ArrayList<>();
+    for (DSL<String> element : getIterable(key, String.class)) {
+      keys.add(element.key());
+    }
+    return keys;
+  }
+
+  private static <T> T element(String key, Function1<String, Option<T>> reader) {
+    Option<T> value = reader.apply(key);
+    if (!value.isPresent()) {
+      throw new NoSuchElementException("key not found: " + key);
+    }
+    return value.getOrElseThrow();
+  }
+
+  /**
+   * Resolves the values of many keys at once. Keys not found are not included in the result.
+   *
+   * <p>By default it calls {@link #getString(String)} for each key, sources with a cost per call,
+   * like a remote service or a database, should override it and {@link #supportsBatch()}.</p>
+   *
+   * @param keys keys to resolve
+   * @return the values found, as strings
+   */
+  default Map<String, String> getAll(Collection<String> keys) {
+    Map<String, String> result = new HashMap<>();
+    for (String key : keys) {
+      Option<String> value = getString(key);
+      if (value.isPresent()) {
+        result.put(key, value.getOrElseThrow());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * When true, the interpreters resolve all the keys of the program with a single call to
+   * {@link #getAll(Collection)} before running it.
+   *
+   * @return true if {@link #getAll(Collection)} is cheaper than calling every key individually
+   */
+  default boolean supportsBatch() {
+    return false;
+  }
+
+  /**
+   * Decorators must forward it to the decorated source, together with {@link #entries()}.
+   *
+   * @return true if {@link #entries()} is supported
+   */
+  default boolean supportsEntries() {
+    return false;
+  }
+
+  /**
+   * When true, {@link PureCFG#tracedRun(Source)} reads every value once with {@link #getString(String)} and
+   * then parses it, so it keeps the text of the value without a second lookup. Decorators must forward it
+   * to the decorated source.
+   *
+   * @return true if the typed values are parsed from {@link #getString(String)} with the same rules of the
+   * default methods of this interface
+   */
+  default boolean parsesStrings() {
+    return false;
+  }
+
+  /**
+   * All the values of this source with their full key, elements of lists are included with their index,
+   * like {@code list.0}. Values are strings, or the native type of the format, like {@code Long} in toml.
+   *
+   * @return all the values of the source
+   * @throws UnsupportedOperationException if the source cannot list its keys, see {@link #supportsEntries()}
+   */
+  default Map<String, Object> entries() {
+    throw new UnsupportedOperationException("entries not supported by " + this);
+  }
+
   /**
    * <p>Reads configuration from properties files:</p>
    *
@@ -67,6 +253,17 @@ public interface Source {
     return from(PropertiesSource.read(file));
   }
 
+  /**
+   * Same as {@link #fromProperties(String)} but only keeps the values of the given keys.
+   *
+   * @param file file name
+   * @param keys keys read by the program, see {@link PureCFG#requiredKeys()}
+   * @return the created source for the given file
+   */
+  static Source fromProperties(String file, RequiredKeys keys) {
+    return from(PropertiesSource.read(file, keys));
+  }
+
   /**
    * <p>Reads configuration from toml files:</p>
    *
@@ -104,6 +301,42 @@ public interface Source {
     return from(TomlSource.read(file));
   }
 
+  /**
+   * Reads a properties file from the filesystem. The file is memory mapped and values are
+   * only copied to the heap when they are read, so it's suitable for very big files.
+   *
+   * @param file path of the file
+   * @return the created source for the given file
+   * @see #fromProperties(String)
+   * @see MappedPropertiesSource
+   */
+  static Source fromProperties(Path file) {
+    return MappedPropertiesSource.map(file);
+  }
+
+  /**
+   * Same as {@link #fromProperties(Path)} but the lines with keys not read by the program
+   * are skipped while parsing.
+   *
+   * @param file path of the file
+   * @param keys keys read by the program, see {@link PureCFG#requiredKeys()}
+   * @return the created source for the given file
+   */
+  static Source fromProperties(Path file, RequiredKeys keys) {
+    return MappedPropertiesSource.map(file, keys);
+  }
+
+  /**
+   * Reads a toml file from the filesystem.
+   *
+   * @param file path of the file
+   * @return the created source for the given file
+   * @see #fromToml(String)
+   */
+  static Source fromToml(Path file) {
+    return from(TomlSource.read(file));
+  }
+
   /**
    * Reads arguments from command line. With this format:
    *
@@ -133,6 +366,119 @@ public interface Source {
     return from(parseArgs(args));
   }
 
+  /**
+   * Reads configuration from environment variables starting with the given prefix. With this format:
+   *
+   * <pre>
+   *   APP_SERVER_HOST=localhost
+   *   APP_USER_0_NAME=a
+   * </pre>
+   *
+   * Will be parsed, with prefix {@code APP}, as:
+   *
+   * <pre>
+   *   server.host=localhost
+   *   user.0.name=a
+   * </pre>
+   *
+   * The variables are normalized only once, when the source is created, so lookups and lists work
+   * the same way as in {@link #fromProperties(String)}. Since {@code _} is used as separator,
+   * keys cannot contain underscores. Names are converted to lower case, so camelCase keys, like
+   * {@code maxSize}, cannot be read from this source, use {@link #fromEnv(String, RequiredKeys)} instead.
+   *
+   * @param prefix prefix of the variables, without the trailing {@code _}
+   * @return the created source for the environment of the current process
+   */
+  static Source fromEnv(String prefix) {
+    return fromEnv(prefix, System.getenv());
+  }
+
+  static Source fromEnv(String prefix, Map<String, String> env) {
+    return from(parseEnv(prefix, env, key -> key));
+  }
+
+  /**
+   * Same as {@link #fromEnv(String)} but the names are matched ignoring case against the keys read by
+   * the program, so {@code APP_SERVICE_MAXSIZE} is read as {@code service.maxSize}. Variables that don't
+   * match any key are kept in lower case.
+   *
+   * @param prefix prefix of the variables, without the trailing {@code _}
+   * @param keys keys read by the program, see {@link PureCFG#requiredKeys()}
+   * @return the created source for the environment of the current process
+   */
+  static Source fromEnv(String prefix, RequiredKeys keys) {
+    return fromEnv(prefix, System.getenv(), keys);
+  }
+
+  static Source fromEnv(String prefix, Map<String, String> env, RequiredKeys keys) {
+    return from(parseEnv(prefix, env, checkNonNull(keys)::withCaseOf));
+  }
+
+  /**
+   * Reads configuration from a properties file in the filesystem, and loads it again when the file changes.
+   *
+   * @param file path of the file
+   * @return the created source for the given file
+   * @see #fromProperties(String)
+   */
+  static ReloadableSource watchProperties(Path file) {
+    return watch(file, path -> from(PropertiesSource.read(path)));
+  }
+
+  /**
+   * Reads configuration from a toml file in the filesystem, and loads it again when the file changes.
+   * If the new content of the file is not valid, the previous content is kept.
+   *
+   * @param file path of the file
+   * @return the created source for the given file
+   * @see #fromToml(String)
+   */
+  static ReloadableSource watchToml(Path file) {
+    return watch(file, path -> from(TomlSource.read(path)));
+  }
+
+  static ReloadableSource watch(Path file, Function1<Path, Source> loader) {
+    return watch(file, Duration.ofMillis(100), loader);
+  }
+
+  /**
+   * Creates a source that is loaded again with the given loader every time the file changes.
+   *
+   * @param file path of the file
+   * @param debounce time without changes in the file before loading it again
+   * @param loader function that parses the file
+   * @return the created source for the given file
+   */
+  static ReloadableSource watch(Path file, Duration debounce, Function1<Path, Source> loader) {
+    return new ReloadableSource(file, debounce, loader);
+  }
+
+  /**
+   * <p>Combines many sources in one, where the first source has the highest precedence, for example
+   * {@code layered(fromArgs(args), fromEnv("APP"), fromToml(file))}.</p>
+   *
+   * <p>The layers are merged once in a flat index, so every lookup is a single hash lookup no matter
+   * the number of layers. Lists are merged element by element.</p>
+   *
+   * @param layers sources ordered from highest to lowest precedence
+   * @return the merged source
+   */
+  static LayeredSource layered(Source... layers) {
+    return new LayeredSource(List.of(layers));
+  }
+
+  /**
+   * Reports every lookup of the given source to the sink, with the time spent and if the key was found,
+   * see {@link LookupMetrics} and {@link JmxMetrics}.
+   *
+   * @param source the source to instrument
+   * @param sink receives every lookup
+   * @return the instrumented source
+   */
+  static Source instrumented(Source source, MetricsSink sink) {
+    return new InstrumentedSource(source, sink);
+  }
+
   static Source from(Properties properties) {
     return new PropertiesSource(properties);
   }
@@ -144,9 +490,11 @@ public interface Source {
   final class PropertiesSource implements Source {
 
     private final Properties properties;
+    private final NavigableSet<String> index;
 
     public PropertiesSource(Properties properties) {
       this.properties = checkNonNull(properties);
+      this.index = new TreeSet<>(properties.stringPropertyNames());
     }
 
     public static Properties read(String file) {
@@ -159,6 +507,23 @@ public interface Source {
       }
     }
 
+    public static Properties read(Path file) {
+      try (var input = Files.newInputStream(file)) {
+        Properties properties = new Properties();
+        properties.load(input);
+        return properties;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    public static Properties read(String file, RequiredKeys keys) {
+      Properties properties = read(file);
+      properties.stringPropertyNames().stream()
+          .filter(key -> !keys.contains(key)).forEach(properties::remove);
+      return properties;
+    }
+
     @Override
     public Option<String> getString(String key) {
       return readString(key);
@@ -176,29 +541,99 @@ public interface Source {
 
     @Override
     public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
-      return iterableKeys(key).map(k -> readKey(k, type)).collect(toImmutableArray());
+      return iterableKeys(index, key).stream().map(k -> readKey(k, type)).collect(toImmutableArray());
     }
 
     @Override
     public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
-      return iterableKeys(key).map(k -> new DSL.ReadConfig<>(k, next)).collect(toImmutableArray());
+      return iterableKeys(index, key).stream().map(k -> new DSL.ReadConfig<>(k, next)).collect(toImmutableArray());
+    }
+
+    @Override
+    public int[] getIntArray(String key) {
+      Collection<String> keys = iterableKeys(index, key);
+      int[] result = new int[keys.size()];
+      int i = 0;
+      for (String element : keys) {
+        result[i++] = Integer.parseInt(readElement(element));
+      }
+      return result;
+    }
+
+    @Override
+    public long[] getLongArray(String key) {
+      Collection<String> keys = iterableKeys(index, key);
+      long[] result = new long[keys.size()];
+      int i = 0;
+      for (String element : keys) {
+        result[i++] = Long.parseLong(readElement(element));
+      }
+      return result;
+    }
+
+    @Override
+    public double[] getDoubleArray(String key) {
+      Collection<String> keys = iterableKeys(index, key);
+      double[] result = new double[keys.size()];
+      int i = 0;
+      for (String element : keys) {
+        result[i++] = Double.parseDouble(readElement(element));
+      }
+      return result;
     }
 
-    private Stream<String> iterableKeys(String key) {
-      String regex = "(" + key.replace("\\.", ".") + "\\.\\d+).*";
-      return properties.keySet().stream()
-          .map(Object::toString)
-          .flatMap(k -> getKey(k, regex))
-          .distinct()
-          .sorted();
+    @Override
+    public boolean supportsEntries() {
+      return true;
+    }
+
+    @Override
+    public boolean parsesStrings() {
+      return true;
+    }
+
+    @Override
+    public Map<String, Object> entries() {
+      Map<String, Object> entries = new HashMap<>();
+      for (String key : index) {
+        entries.put(key, properties.getProperty(key));
+      }
+      return entries;
+    }
+
+    /**
+     * Finds the elements of the list in the sorted index. Keys of the same element are contiguous,
+     * so after reading an index all the keys below it ({@code list.N.*}) are skipped in one step.
+     *
+     * @param index all the keys sorted
+     * @param key list key
+     * @return the keys of every element, sorted by its numeric index
+     */
+    static Collection<String> iterableKeys(NavigableSet<String> index, String key) {
+      String prefix = key + ".";
+      SortedMap<Integer, String> elements = new TreeMap<>();
+      String current = index.ceiling(prefix);
+      while (current != null && current.startsWith(prefix)) {
+        int end = current.indexOf('.', prefix.length());
+        String element = end < 0 ? current : current.substring(0, end);
+        if (isIndex(element, prefix.length())) {
+          elements.put(Integer.parseInt(element.substring(prefix.length())), element);
+        }
+        // '/' is the next character after '.'
+        current = index.ceiling(element + "/");
+      }
+      return elements.values();
     }
 
     @SuppressWarnings("unchecked")
-    private <T> DSL<T> readKey(String key, Class<T> type) {
+    static <T> DSL<T> readKey(String key, Class<T> type) {
       return switch (type.getSimpleName()) {
         case "String" -> (DSL<T>) new DSL.ReadString(key);
         case "Integer" -> (DSL<T>) new DSL.ReadInt(key);
         case "Boolean" -> (DSL<T>) new DSL.ReadBoolean(key);
+        case "Long" -> (DSL<T>) new DSL.ReadLong(key);
+        case "Double" -> (DSL<T>) new DSL.ReadDouble(key);
+        case "Duration" -> (DSL<T>) new DSL.ReadDuration(key);
         default -> throw new UnsupportedOperationException("this class is not supported: " + type.getName());
       };
     }
@@ -207,20 +642,35 @@ public interface Source {
       return Option.of(properties.getProperty(key));
     }
 
-    private Stream<String> getKey(String key, String regex) {
-      Matcher matcher = Pattern.compile(regex).matcher(key);
-
-      if (matcher.find()) {
-        return Stream.of(matcher.group(1));
+    private String readElement(String key) {
+      String value = properties.getProperty(key);
+      if (value == null) {
+        throw new NoSuchElementException("key not found: " + key);
       }
+      return value;
+    }
 
-      return Stream.empty();
+    static boolean isIndex(String key, int start) {
+      if (start == key.length() || key.length() - start > 9) {
+        return false;
+      }
+      for (int i = start; i < key.length(); i++) {
+        char c = key.charAt(i);
+        if (c < '0' || c > '9') {
+          return false;
+        }
+      }
+      return true;
     }
   }
 
   final class TomlSource implements Source {
 
+    private static final Object MISSING = new Object();
+
     private final TomlParseResult toml;
+    // lookups by string are split only the first time
+    private final KeyCache keys = new KeyCache();
 
     public TomlSource(TomlParseResult toml) {
       this.toml = checkNonNull(toml);
@@ -234,40 +684,161 @@ public interface Source {
       }
     }
 
+    /**
+     * Parses a toml file from the filesystem. Unlike {@link #read(String)}, it fails if the file has errors,
+     * it's used to reload files that could be in the middle of being edited.
+     *
+     * @param file path of the file
+     * @return the parsed file
+     */
+    public static TomlParseResult read(Path file) {
+      try {
+        TomlParseResult result = Toml.parse(file);
+        if (result.hasErrors()) {
+          throw new IllegalArgumentException("invalid toml file " + file + ": " + result.errors());
+        }
+        return result;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
     @Override
     public Option<String> getString(String key) {
-      return Try.of(() -> TomlSource.<String>readValue(toml, key)).toOption();
+      return getString(keys.resolve(key));
     }
 
     @Override
     public Option<Integer> getInteger(String key) {
-      return Try.of(() -> TomlSource.<Long>readValue(toml, key).intValue()).toOption();
+      return getInteger(keys.resolve(key));
     }
 
     @Override
     public Option<Boolean> getBoolean(String key) {
-      return Try.of(() -> TomlSource.<Boolean>readValue(toml, key)).toOption();
+      return getBoolean(keys.resolve(key));
+    }
+
+    @Override
+    public Option<String> getString(KeyPath key) {
+      return readValue(toml, key) instanceof String value ? Option.some(value) : Option.none();
+    }
+
+    @Override
+    public Option<Integer> getInteger(KeyPath key) {
+      return readValue(toml, key) instanceof Long value ? Option.some(toInt(key, value)) : Option.none();
+    }
+
+    @Override
+    public Option<Boolean> getBoolean(KeyPath key) {
+      return readValue(toml, key) instanceof Boolean value ? Option.some(value) : Option.none();
+    }
+
+    @Override
+    public Option<Long> getLong(String key) {
+      return getLong(keys.resolve(key));
+    }
+
+    @Override
+    public Option<Double> getDouble(String key) {
+      return getDouble(keys.resolve(key));
+    }
+
+    @Override
+    public Option<Duration> getDuration(String key) {
+      return getDuration(keys.resolve(key));
+    }
+
+    @Override
+    public Option<Long> getByteSize(String key) {
+      return getByteSize(keys.resolve(key));
+    }
+
+    @Override
+    public Option<Long> getLong(KeyPath key) {
+      return readValue(toml, key) instanceof Long value ? Option.some(value) : Option.none();
+    }
+
+    @Override
+    public Option<Double> getDouble(KeyPath key) {
+      return readValue(toml, key) instanceof Number value ? Option.some(value.doubleValue()) : Option.none();
+    }
+
+    @Override
+    public Option<Duration> getDuration(KeyPath key) {
+      return switch (readValue(toml, key)) {
+        case String value -> Option.some(ValueParser.parseDuration(value));
+        case Long value -> Option.some(Duration.ofMillis(value));
+        default -> Option.none();
+      };
+    }
+
+    @Override
+    public Option<Long> getByteSize(KeyPath key) {
+      return switch (readValue(toml, key)) {
+        case String value -> Option.some(ValueParser.parseByteSize(value));
+        case Long value -> Option.some(value);
+        default -> Option.none();
+      };
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
-      TomlArray array = toml.getArrayOrEmpty(key);
-      if (array.isEmpty()) {
+      if (!(readValue(toml, keys.resolve(key)) instanceof TomlArray array) || array.isEmpty()) {
         return ImmutableArray.empty();
       }
       List<DSL<T>> result = new ArrayList<>();
       for (int i = 0; i < array.size(); i++) {
-        var item = (T) array.get(i);
-        result.add(new DSL.Pure<>(key, item));
+        Object item = switch (array.get(i)) {
+          case Long value when type == Integer.class && value == value.intValue() -> value.intValue();
+          case Long value when type == Double.class -> value.doubleValue();
+          case Object value when type.isInstance(value) -> value;
+          default -> MISSING;
+        };
+        // elements that need conversion, or with a different type, are read with the same rules of single values
+        result.add(item == MISSING ? PropertiesSource.readKey(key + "." + i, type) : new DSL.Pure<>(key, type.cast(item)));
       }
       return ImmutableArray.from(result);
     }
 
+    @Override
+    public int[] getIntArray(String key) {
+      if (!(readValue(toml, keys.resolve(key)) instanceof TomlArray array)) {
+        return new int[0];
+      }
+      int[] result = new int[array.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = toInt(key + "." + i, readLong(key, array, i));
+      }
+      return result;
+    }
+
+    @Override
+    public long[] getLongArray(String key) {
+      if (!(readValue(toml, keys.resolve(key)) instanceof TomlArray array)) {
+        return new long[0];
+      }
+      long[] result = new long[array.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = readLong(key, array, i);
+      }
+      return result;
+    }
+
+    @Override
+    public double[] getDoubleArray(String key) {
+      if (!(readValue(toml, keys.resolve(key)) instanceof TomlArray array)) {
+        return new double[0];
+      }
+      double[] result = new double[array.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = readNumber(key, array, i).doubleValue();
+      }
+      return result;
+    }
+
     @Override
     public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
-      TomlArray array = toml.getArrayOrEmpty(key);
-      if (array.isEmpty()) {
+      if (!(readValue(toml, keys.resolve(key)) instanceof TomlArray array) || array.isEmpty()) {
         return ImmutableArray.empty();
       }
       List<DSL<T>> result = new ArrayList<>();
@@ -277,20 +848,113 @@ public interface Source {
       return ImmutableArray.from(result);
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> T readValue(TomlParseResult toml, String key) {
+    @Override
+    public boolean supportsEntries() {
+      return true;
+    }
+
+    @Override
+    public Map<String, Object> entries() {
+      Map<String, Object> entries = new HashMap<>();
+      collect("", toml, entries);
+      return entries;
+    }
+
+    private static void collect(String prefix, Object value, Map<String, Object> entries) {
+      if (value instanceof TomlTable table) {
+        for (String key : table.keySet()) {
+          collect(child(prefix, key), checkNonNull(table.get(List.of(key))), entries);
+        }
+      } else if (value instanceof TomlArray array) {
+        for (int i = 0; i < array.size(); i++) {
+          collect(child(prefix, String.valueOf(i)), array.get(i), entries);
+        }
+      } else {
+        entries.put(prefix, value);
+      }
+    }
+
+    private static String child(String prefix, String key) {
+      return prefix.isEmpty() ? key : prefix + "." + key;
+    }
+
+    private static Number readNumber(String key, TomlArray array, int index) {
+      if (array.get(index) instanceof Number number) {
+        return number;
+      }
+      throw new IllegalArgumentException("not a number: " + key + "." + index);
+    }
+
+    /**
+     * Only integers, a float is not truncated.
+     */
+    private static long readLong(String key, TomlArray array, int index) {
+      if (array.get(index) instanceof Long value) {
+        return value;
+      }
+      throw new IllegalArgumentException("not an integer: " + key + "." + index);
+    }
+
+    static int toInt(Object key, long value) {
+      try {
+        return Math.toIntExact(value);
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("integer out of range: " + key, e);
+      }
+    }
+
+    /**
+     * Navigates the toml tree checking the type of every node, so a missing key or a key with a
+     * different structure is reported as {@code MISSING} instead of throwing an exception.
+     */
+    private static Object readValue(TomlParseResult toml, KeyPath key) {
       Object current = toml;
-      for (String item : key.split("\\.")) {
+      for (int i = 0; i < key.size(); i++) {
+        Object next = null;
         if (current instanceof TomlTable table) {
-          current = table.get(item);
+          next = table.get(key.segmentPath(i));
         } else if (current instanceof TomlArray array) {
-          current = array.get(Integer.parseInt(item));
+          int index = parseIndex(key.segment(i));
+          if (index >= 0 && index < array.size()) {
+            next = array.get(index);
+          }
+        }
+        if (next == null) {
+          return MISSING;
+        }
+        current = next;
+      }
+      return current;
+    }
+
+    private static int parseIndex(String segment) {
+      if (segment.isEmpty() || segment.length() > 9) {
+        return -1;
+      }
+      int index = 0;
+      for (int i = 0; i < segment.length(); i++) {
+        char c = segment.charAt(i);
+        if (c < '0' || c > '9') {
+          return -1;
         }
+        index = index * 10 + (c - '0');
       }
-      return (T) current;
+      return index;
     }
   }
 
+  private static Properties parseEnv(String prefix, Map<String, String> env, Function1<String, String> normalize) {
+    String start = checkNonNull(prefix).isEmpty() ? "" : prefix + "_";
+    Properties properties = new Properties();
+    env.forEach((name, value) -> {
+      if (name.length() > start.length() && name.startsWith(start)) {
+        String key = name.substring(start.length()).toLowerCase(Locale.ROOT).replace('_', '.');
+        properties.setProperty(normalize.apply(key), value);
+      }
+    });
+    return properties;
+  }
+
   private static Properties parseArgs(String[] args) {
     Properties properties = new Properties();
     for (int i = 0; i < args.length; i++) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * <p>Parsers for values that are expensive to parse, like durations and byte sizes.</p>
+ *
+ * <p>The parsed values are cached by the text, so reading the same value many times, or running the same
+ * program many times, parses the text only once. The cache is limited, once it's full the values are
+ * parsed every time.</p>
+ */
+final class ValueParser {
+
+  private static final int MAX_CACHED = 4096;
+
+  private static final ConcurrentMap<String, Duration> DURATIONS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, Long> BYTE_SIZES = new ConcurrentHashMap<>();
+
+  private ValueParser() { }
+
+  /**
+   * Parses a duration, like {@code 30s}, {@code 500ms} or {@code 2h}. Supported units are {@code ns},
+   * {@code us}, {@code ms}, {@code s}, {@code m}, {@code h} and {@code d}, a number without unit is
+   * read as milliseconds. ISO-8601 durations, like {@code PT30S}, are also supported.
+   *
+   * @param text value to parse
+   * @return the parsed duration
+   * @throws IllegalArgumentException if the text is not a valid duration
+   */
+  static Duration parseDuration(String text) {
+    return cached(DURATIONS, text, ValueParser::duration);
+  }
+
+  /**
+   * Parses a size in bytes, like {@code 512}, {@code 64k} or {@code 10MB}. Supported units are {@code b},
+   * {@code k}, {@code m}, {@code g} and {@code t}, with or without a trailing {@code b}, case insensitive,
+   * and they are powers of 1024, like in the memory options of the JVM.
+   *
+   * @param text value to parse
+   * @return the number of bytes
+   * @throws IllegalArgumentException if the text is not a valid size
+   */
+  static long parseByteSize(String text) {
+    return cached(BYTE_SIZES, text, ValueParser::byteSize);
+  }
+
+  private static <T> T cached(ConcurrentMap<String, T> cache, String text, Function<String, T> parser) {
+    T value = cache.get(text);
+    if (value != null) {
+      return value;
+    }
+    T parsed = parser.apply(text);
+    if (cache.size() < MAX_CACHED) {
+      cache.putIfAbsent(text, parsed);
+    }
+    return parsed;
+  }
+
+  private static Duration duration(String text) {
+    String value = text.trim();
+    if (value.startsWith("P") || value.startsWith("-P")) {
+      return Duration.parse(value);
+    }
+    int unit = unitStart(value);
+    long amount = parseNumber(text, value.substring(0, unit));
+    return switch (value.substring(unit).trim()) {
+      case "ns" -> Duration.of(amount, ChronoUnit.NANOS);
+      case "us" -> Duration.of(amount, ChronoUnit.MICROS);
+      case "", "ms" -> Duration.ofMillis(amount);
+      case "s" -> Duration.ofSeconds(amount);
+      case "m" -> Duration.ofMinutes(amount);
+      case "h" -> Duration.ofHours(amount);
+      case "d" -> Duration.ofDays(amount);
+      default -> throw new IllegalArgumentException("invalid duration: " + text);
+    };
+  }
+
+  private static long byteSize(String text) {
+    String value = text.trim();
+    int unit = unitStart(value);
+    long amount = parseNumber(text, value.substring(0, unit));
+    int shift = switch (value.substring(unit).trim().toLowerCase(Locale.ROOT)) {
+      case "", "b" -> 0;
+      case "k", "kb" -> 10;
+      case "m", "mb" -> 20;
+      case "g", "gb" -> 30;
+      case "t", "tb" -> 40;
+      default -> throw new IllegalArgumentException("invalid byte size: " + text);
+    };
+    if (amount < 0 || amount > (Long.MAX_VALUE >> shift)) {
+      throw new IllegalArgumentException("invalid byte size: " + text);
+    }
+    return amount << shift;
+  }
+
+  private static int unitStart(String value) {
+    int i = 0;
+    while (i < value.length() && (Character.isDigit(value.charAt(i)) || (i == 0 && value.charAt(i) == '-'))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static long parseNumber(String text, String number) {
+    try {
+      return Long.parseLong(number);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid number: " + text, e);
+    }
+  }
+}
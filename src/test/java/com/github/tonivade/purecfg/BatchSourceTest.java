@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purecfg;
+
+import static com.github.tonivade.purecfg.PureCFG.mapN;
+import static com.github.tonivade.purecfg.PureCFG.readBoolean;
+import static com.github.tonivade.purecfg.PureCFG.readConfig;
+import static com.github.tonivade.purecfg.PureCFG.readInt;
+import static com.github.tonivade.purecfg.PureCFG.readString;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Validation;
+
+class BatchSourceTest {
+
+  private final Map<String, String> data = Map.of(
+      "server.host", "localhost",
+      "server.port", "8080",
+      "server.active", "true");
+
+  private KeyValueServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new KeyValueServer(data);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.close();
+  }
+
+  @Test
+  void batch() {
+    PureCFG<Config> program = readConfig("server",
+        mapN(readString("host"), readInt("port"), readBoolean("active")).apply(Config::new));
+    Config expected = new Config("localhost", 8080, true);
+    Source source = new RemoteSource(server.port());
+
+    assertAll(
+        () -> assertEquals(expected, program.unsafeRun(source)),
+        () -> assertEquals(Option.some(expected), program.safeRun(source)),
+        () -> assertEquals(Validation.valid(expected), program.validatedRun(source)),
+        () -> assertEquals(expected, program.compile().unsafeRun(source)),
+        () -> assertEquals(4, server.requests())
+    );
+  }
+
+  @Test
+  void batchMissingKeys() {
+    PureCFG<Config> program = readConfig("other",
+        mapN(readString("host"), readInt("port"), readBoolean("active")).apply(Config::new));
+    Source source = new RemoteSource(server.port());
+
+    assertAll(
+        () -> assertEquals(Option.none(), program.safeRun(source)),
+        () -> assertEquals(1, server.requests())
+    );
+  }
+
+  /**
+   * Stand-in for a remote key-value store. Every request is one line {@code GET key1 key2 ...} and
+   * the response is one line {@code key=value} for each key found, ending with {@code END}.
+   */
+  private static final class KeyValueServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, String> data;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private KeyValueServer(Map<String, String> data) throws IOException {
+      this.data = data;
+      this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+      Thread.ofPlatform().daemon().start(this::serve);
+    }
+
+    int port() {
+      return serverSocket.getLocalPort();
+    }
+
+    int requests() {
+      return requests.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+    }
+
+    private void serve() {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept();
+             var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+             var writer = new PrintWriter(socket.getOutputStream(), true, UTF_8)) {
+          String request = reader.readLine();
+          requests.incrementAndGet();
+          for (String key : request.substring("GET ".length()).split(" ")) {
+            String value = data.get(key);
+            if (value != null) {
+              writer.println(key + "=" + value);
+            }
+          }
+          writer.println("END");
+        } catch (IOException e) {
+          // server closed
+        }
+      }
+    }
+  }
+
+  private record RemoteSource(int port) implements Source {
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+           var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+           var writer = new PrintWriter(socket.getOutputStream(), true, UTF_8)) {
+        writer.println("GET " + String.join(" ", keys));
+        Map<String, String> result = new HashMap<>();
+        for (String line = reader.readLine(); !line.equals("END"); line = reader.readLine()) {
+          int separator = line.indexOf('=');
+          result.put(line.substring(0, separator), line.substring(separator + 1));
+        }
+        return result;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public boolean supportsBatch() {
+      return true;
+    }
+
+    @Override
+    public Option<String> getString(String key) {
+      return Option.of(getAll(List.of(key)).get(key));
+    }
+
+    @Override
+    public Option<Integer> getInteger(String key) {
+      return getString(key).map(Integer::parseInt);
+    }
+
+    @Override
+    public Option<Boolean> getBoolean(String key) {
+      return getString(key).map(Boolean::parseBoolean);
+    }
+
+    @Override
+    public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+      return ImmutableArray.empty();
+    }
+
+    @Override
+    public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+      return ImmutableArray.empty();
+    }
+  }
+}
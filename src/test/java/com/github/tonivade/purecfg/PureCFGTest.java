@@ -13,15 +13,38 @@ import static com.github.tonivade.purecfg.Source.from;
 import static com.github.tonivade.purefun.core.Validator.equalsTo;
 import static com.github.tonivade.purefun.data.Sequence.listOf;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.openmbean.TabularData;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.tomlj.Toml;
 
+import com.github.tonivade.purecfg.Source.PropertiesSource;
 import com.github.tonivade.purecheck.TestSuite;
 import com.github.tonivade.purecheck.spec.IOTestSpec;
 import com.github.tonivade.purefun.core.Tuple;
@@ -87,6 +110,22 @@ class PureCFGTest extends IOTestSpec<String> {
     );
   }
 
+  @Test
+  void iterableNumericOrder() {
+    PureCFG<Iterable<String>> iterable = readIterable("list", String.class);
+
+    Properties properties = new Properties();
+    for (int i = 0; i < 12; i++) {
+      properties.put("list." + i, String.valueOf(i));
+    }
+    properties.put("list.x", "ignored");
+    properties.put("other.0", "ignored");
+
+    Option<Iterable<String>> option = iterable.safeRun(Source.from(properties));
+
+    assertEquals(listOf("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"), option.getOrElseThrow());
+  }
+
   @Test
   void iterableToml() {
     PureCFG<Iterable<String>> iterable = readIterable("list", String.class);
@@ -168,6 +207,27 @@ class PureCFGTest extends IOTestSpec<String> {
     );
   }
 
+  @Test
+  void missingToml() {
+    var toml = Toml.parse(
+        """
+        [server]
+          host = "localhost"
+          port = 8080
+          list = [ "a" ]
+        """);
+    Source source = Source.from(toml);
+
+    assertAll(
+        () -> assertEquals(Option.none(), source.getInteger("server.host")),
+        () -> assertEquals(Option.none(), source.getString("server.port")),
+        () -> assertEquals(Option.none(), source.getString("server.host.other")),
+        () -> assertEquals(Option.none(), source.getString("server.list.1")),
+        () -> assertEquals(Option.none(), source.getString("server.list.x")),
+        () -> assertEquals(Option.some("a"), source.getString("server.list.0"))
+    );
+  }
+
   @Test
   void error() {
     PureCFG<Config> cfg = readConfig();
@@ -188,6 +248,630 @@ class PureCFGTest extends IOTestSpec<String> {
     );
   }
 
+  @Test
+  void nested() {
+    PureCFG<Iterable<String>> program =
+        PureCFG.readConfig("a", PureCFG.readConfig("b", readIterable("list", String.class)));
+
+    Properties properties = new Properties();
+    properties.put("a.b.list.0", "x");
+    properties.put("a.b.list.1", "y");
+
+    var toml = Toml.parse(
+        """
+        [a.b]
+          list = [ "x", "y" ]
+        """);
+
+    assertAll(
+        () -> assertEquals(listOf("x", "y"), program.unsafeRun(Source.from(properties))),
+        () -> assertEquals(listOf("x", "y"), program.unsafeRun(Source.from(toml))),
+        () -> assertEquals("- a.b.list: String[]\n", program.describe())
+    );
+  }
+
+  @Test
+  void keyPath() {
+    KeyPath path = KeyPath.of("a.b.c");
+
+    assertAll(
+        () -> assertEquals("a.b.c", path.toString()),
+        () -> assertEquals(listOf("a", "b", "c"), listOf(path.segment(0), path.segment(1), path.segment(2))),
+        () -> assertEquals(path.segments(), KeyPath.root().resolve("a").resolve("b.c").segments()),
+        () -> assertEquals("a.b.c", KeyPath.of("a").resolve(KeyPath.of("b.c")).toString()),
+        () -> assertEquals(List.of("a", "b", "c"), KeyPath.of("a").resolve(KeyPath.of("b.c")).segments()),
+        () -> assertSame(path, path.resolve("")),
+        () -> assertThrows(IllegalArgumentException.class, () -> KeyPath.of("a..b")),
+        () -> assertThrows(IllegalArgumentException.class, () -> KeyPath.of("a").resolve(".b")),
+        () -> assertThrows(IllegalArgumentException.class, () -> KeyPath.of("a."))
+    );
+  }
+
+  @Test
+  void keyCache() {
+    KeyCache keys = new KeyCache();
+    KeyPath server = keys.resolve("server");
+    KeyPath host = keys.resolve(server, "host");
+    for (int i = 0; i < KeyCache.MAX_SIZE; i++) {
+      keys.resolve("key" + i);
+    }
+
+    assertAll(
+        () -> assertSame(server, keys.resolve("server")),
+        () -> assertSame(host, keys.resolve(server, "host")),
+        () -> assertEquals("server.host", host.toString()),
+        () -> assertEquals("other.host", keys.resolve(KeyPath.of("other"), "host").toString()),
+        () -> assertEquals("full", keys.resolve("full").toString()),
+        () -> assertTrue(keys.resolve("full") != keys.resolve("full"))
+    );
+  }
+
+  @Test
+  void reload(@TempDir Path folder) throws IOException, InterruptedException {
+    Path file = folder.resolve("config.properties");
+    Files.writeString(file, "server.host=localhost\nserver.port=8080\nserver.active=true\n");
+
+    try (var source = Source.watchProperties(file)) {
+      assertEquals(expectedConfig, readConfig().unsafeRun(source));
+
+      Files.writeString(file, "server.host=localhost\nserver.port=8081\nserver.active=true\n");
+
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (source.getInteger("server.port").getOrElseThrow() == 8080 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+
+      assertEquals(new Config("localhost", 8081, true), readConfig().unsafeRun(source.snapshot()));
+    }
+  }
+
+  @Test
+  void reloadError(@TempDir Path folder) throws IOException, InterruptedException {
+    Path file = folder.resolve("config.toml");
+    Files.writeString(file, "[server]\n  host = \"localhost\"\n  port = 8080\n  active = true\n");
+
+    try (var source = Source.watchToml(file)) {
+      Files.writeString(file, "[server\n  host = \"localhost\"\n");
+
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!source.lastError().isPresent() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+
+      assertAll(
+          () -> assertTrue(source.lastError().isPresent()),
+          () -> assertEquals(expectedConfig, readConfig().unsafeRun(source))
+      );
+
+      Files.writeString(file, "[server]\n  host = \"localhost\"\n  port = 8081\n  active = true\n");
+
+      deadline = System.currentTimeMillis() + 10_000;
+      while (source.lastError().isPresent() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+
+      assertAll(
+          () -> assertEquals(Option.none(), source.lastError()),
+          () -> assertEquals(new Config("localhost", 8081, true), readConfig().unsafeRun(source))
+      );
+    }
+  }
+
+  @Test
+  void mappedProperties(@TempDir Path folder) throws IOException {
+    Path file = folder.resolve("config.properties");
+    Files.writeString(file,
+        """
+        # comment
+        ! other comment
+        server.host = localhost
+          server.port:8080
+        server.active true
+        server.name=first
+        server.name=second
+        escaped.key\\ with\\ spaces=a\\tb
+        multiline=one \\
+                  two
+        list.10=k
+        list.2=c
+        empty=
+        """);
+    Source source = Source.fromProperties(file);
+    Properties expected = PropertiesSource.read(file);
+
+    assertAll(
+        () -> assertEquals(expectedConfig, readConfig().unsafeRun(source)),
+        () -> assertEquals(listOf("c", "k"), readIterable("list", String.class).unsafeRun(source)),
+        () -> assertEquals(Option.none(), source.getString("missing")),
+        () -> expected.stringPropertyNames().forEach(
+            key -> assertEquals(Option.some(expected.getProperty(key)), source.getString(key), key))
+    );
+  }
+
+  @Test
+  void requiredKeys(@TempDir Path folder) throws IOException {
+    PureCFG<Iterable<User>> program = PureCFG.readConfig("app", readUsers());
+
+    Path file = folder.resolve("config.properties");
+    Files.writeString(file,
+        """
+        app.user.0.name=a
+        app.user.0.pass=a
+        app.user.0.other=x
+        app.other=y
+        other=z
+        """);
+    Source source = Source.fromProperties(file, program.requiredKeys());
+
+    assertAll(
+        () -> assertEquals(Set.of("app.user.[].name", "app.user.[].pass"), program.requiredKeys().patterns()),
+        () -> assertEquals(listOf(new User("a", "a")), program.unsafeRun(source)),
+        () -> assertEquals(Option.none(), source.getString("app.user.0.other")),
+        () -> assertEquals(Option.none(), source.getString("app.other")),
+        () -> assertEquals(Option.none(), source.getString("other"))
+    );
+  }
+
+  @Test
+  void compiled() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    properties.put("server.active", "true");
+
+    CompiledCFG<Config> compiled = readConfig().compile();
+    Source source = Source.from(properties);
+
+    assertAll(
+        () -> assertEquals(expectedConfig, compiled.unsafeRun(source)),
+        () -> assertEquals(Option.some(expectedConfig), compiled.safeRun(source)),
+        () -> assertEquals(Validation.valid(expectedConfig), compiled.validatedRun(source))
+    );
+  }
+
+  @Test
+  void compiledIterableOf() {
+    String source =
+        """
+        [[user]]
+           name = "a"
+           pass = "a"
+        [[user]]
+           name = "b"
+           pass = "b"
+        [[user]]
+           name = "c"
+           pass = "c"
+        """;
+
+    CompiledCFG<Iterable<User>> compiled = readUsers().compile();
+
+    assertEquals(Option.some(expectedUsers), compiled.safeRun(from(Toml.parse(source))));
+  }
+
+  @Test
+  void snapshot() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    properties.put("server.active", "true");
+
+    ConfigSnapshot<Config> snapshot = readConfig().bind(Source.from(properties));
+    properties.put("server.port", "9090");
+
+    assertAll(
+        () -> assertEquals(expectedConfig, snapshot.unsafeRun()),
+        () -> assertEquals(Option.some(expectedConfig), snapshot.safeRun()),
+        () -> assertEquals(Validation.valid(expectedConfig), snapshot.validatedRun())
+    );
+  }
+
+  @Test
+  void snapshotError() {
+    PureCFG<Config> cfg = readConfig();
+    Source source = Source.from(new Properties());
+
+    ConfigSnapshot<Config> snapshot = cfg.bind(source);
+
+    assertAll(
+        () -> assertEquals(false, snapshot.isValid()),
+        () -> assertThrows(NoSuchElementException.class, snapshot::unsafeRun),
+        () -> assertEquals(Option.none(), snapshot.safeRun()),
+        () -> assertEquals(cfg.validatedRun(source), snapshot.validatedRun())
+    );
+  }
+
+  @Test
+  void compiledError() {
+    PureCFG<Config> cfg = readConfig();
+    CompiledCFG<Config> compiled = cfg.compile();
+
+    Source source = Source.from(new Properties());
+
+    assertAll(
+        () -> assertThrows(NoSuchElementException.class, () -> compiled.unsafeRun(source)),
+        () -> assertEquals(Option.none(), compiled.safeRun(source)),
+        () -> assertEquals(cfg.validatedRun(source), compiled.validatedRun(source))
+    );
+  }
+
+  @Test
+  void compiledInvalidValue() {
+    PureCFG<Config> cfg = readConfig();
+    PureCFG<Iterable<Integer>> list = readIterable("list", Integer.class);
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "abc");
+    properties.put("server.active", "true");
+    properties.put("list.0", "1");
+    properties.put("list.1", "x");
+    Source source = Source.from(properties);
+
+    CompiledCFG<Config> compiled = cfg.compile();
+    ConfigSnapshot<Config> snapshot = compiled.bind(source);
+
+    assertAll(
+        () -> assertThrows(NoSuchElementException.class, () -> compiled.unsafeRun(source)),
+        () -> assertEquals(Option.none(), compiled.safeRun(source)),
+        () -> assertEquals(Option.none(), cfg.safeRun(source)),
+        () -> assertEquals(
+            Validation.invalid(Validation.Result.of("invalid value (For input string: \"abc\"): server.port")),
+            compiled.validatedRun(source)),
+        () -> assertEquals(cfg.validatedRun(source), compiled.validatedRun(source)),
+        () -> assertEquals(false, snapshot.isValid()),
+        () -> assertEquals(cfg.validatedRun(source), snapshot.validatedRun()),
+        () -> assertEquals(Option.none(), list.compile().safeRun(source)),
+        () -> assertEquals(list.validatedRun(source), list.compile().validatedRun(source))
+    );
+  }
+
+  @Test
+  void env() {
+    Map<String, String> env = Map.of(
+        "APP_SERVER_HOST", "localhost",
+        "APP_SERVER_PORT", "8080",
+        "APP_SERVER_ACTIVE", "true",
+        "APP_USER_0_NAME", "a", "APP_USER_0_PASS", "a",
+        "APP_USER_1_NAME", "b", "APP_USER_1_PASS", "b",
+        "APP_USER_2_NAME", "c", "APP_USER_2_PASS", "c",
+        "OTHER_SERVER_HOST", "example.com");
+
+    Source source = Source.fromEnv("APP", env);
+
+    test(readConfig(), source).run().assertion();
+    assertEquals(expectedUsers, readUsers().unsafeRun(source));
+  }
+
+  @Test
+  void envCamelCase() {
+    Map<String, String> env = Map.of(
+        "APP_SERVICE_HOSTNAME", "localhost",
+        "APP_SERVICE_MAXSIZE", "100",
+        "APP_SERVICE_ALLOWEDHOSTS_0", "a",
+        "APP_SERVICE_ALLOWEDHOSTS_1", "b",
+        "APP_SERVICE_OTHER", "x");
+    PureCFG<Tuple3<String, Integer, Iterable<String>>> program = PureCFG.readConfig("service",
+        mapN(readString("hostName"), readInt("maxSize"), readIterable("allowedHosts", String.class)).apply(Tuple::of));
+
+    Source source = Source.fromEnv("APP", env, program.requiredKeys());
+
+    assertAll(
+        () -> assertEquals(Option.some(Tuple.of("localhost", 100, listOf("a", "b"))), program.safeRun(source)),
+        () -> assertEquals(Option.some("x"), source.getString("service.other")),
+        () -> assertEquals(Option.none(), program.safeRun(Source.fromEnv("APP", env)))
+    );
+  }
+
+  @Test
+  void layered() {
+    Source args = Source.fromArgs("-server.port", "8080");
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "9090");
+    properties.put("user.1.pass", "b");
+    Source props = Source.from(properties);
+    Source toml = Source.from(Toml.parse(
+        """
+        [server]
+          host = "example.com"
+          port = 80
+          active = true
+        [[user]]
+          name = "a"
+          pass = "a"
+        [[user]]
+          name = "b"
+          pass = "x"
+        [[user]]
+          name = "c"
+          pass = "c"
+        """));
+
+    LayeredSource source = Source.layered(args, props, toml);
+
+    test(readConfig(), source).run().assertion();
+    assertAll(
+        () -> assertEquals(expectedUsers, readUsers().unsafeRun(source)),
+        () -> assertEquals(Option.some(args), source.origin("server.port")),
+        () -> assertEquals(Option.some(props), source.origin("server.host")),
+        () -> assertEquals(Option.some(toml), source.origin("server.active")),
+        () -> assertEquals(Option.none(), source.origin("server.missing"))
+    );
+  }
+
+  @Test
+  void layeredNumbers() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    Source toml = Source.from(Toml.parse(
+        """
+        [server]
+          port = 3000000000
+          ratio = 1.9
+        """));
+
+    LayeredSource source = Source.layered(Source.from(properties), toml);
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> source.getInteger("server.port")),
+        () -> assertEquals(Option.some(3000000000L), source.getLong("server.port")),
+        () -> assertEquals(Option.none(), source.getInteger("server.ratio")),
+        () -> assertEquals(Option.none(), source.getLong("server.ratio")),
+        () -> assertEquals(Option.some(1.9), source.getDouble("server.ratio")),
+        () -> assertEquals(Option.none(), PureCFG.readInt("server.port").safeRun(source)),
+        () -> assertEquals(Option.none(), PureCFG.readInt("server.port").safeRun(toml))
+    );
+  }
+
+  @Test
+  void entriesOfDecorators() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    properties.put("server.active", "true");
+    Source props = Source.from(properties);
+    Source instrumented = Source.instrumented(props, new LookupMetrics());
+    Source prefetched = PrefetchedSource.of(props, Set.of("server.host"), Map.of("server.host", "localhost"));
+
+    assertAll(
+        () -> assertTrue(instrumented.supportsEntries()),
+        () -> assertTrue(prefetched.supportsEntries()),
+        () -> assertEquals(props.entries(), prefetched.entries()),
+        () -> assertEquals(expectedConfig, readConfig().unsafeRun(Source.layered(instrumented, prefetched))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> Source.layered(props, new Source() {
+              @Override
+              public Option<String> getString(String key) {
+                return Option.none();
+              }
+
+              @Override
+              public Option<Integer> getInteger(String key) {
+                return Option.none();
+              }
+
+              @Override
+              public Option<Boolean> getBoolean(String key) {
+                return Option.none();
+              }
+
+              @Override
+              public <T> Iterable<DSL<T>> getIterable(String key, Class<T> type) {
+                return List.of();
+              }
+
+              @Override
+              public <T> Iterable<DSL<T>> getIterable(String key, PureCFG<T> next) {
+                return List.of();
+              }
+            }))
+    );
+  }
+
+  @Test
+  void parallelIterable() {
+    Properties properties = new Properties();
+    for (int i = 0; i < 1000; i++) {
+      properties.put("user." + i + ".name", "name" + i);
+      properties.put("user." + i + ".pass", "pass" + i);
+    }
+    Source source = Source.from(properties);
+    PureCFG<User> user = mapN(readString("name"), readString("pass")).apply(User::new);
+    PureCFG<Iterable<User>> sequential = readIterable("user", user);
+    PureCFG<Iterable<User>> parallel = PureCFG.readParallelIterable("user", user);
+
+    Iterable<User> expected = sequential.unsafeRun(source);
+
+    assertAll(
+        () -> assertEquals(expected, parallel.unsafeRun(source)),
+        () -> assertEquals(expected, parallel.compile().unsafeRun(source))
+    );
+
+    for (int i = 0; i < 1000; i += 100) {
+      properties.remove("user." + i + ".pass");
+    }
+
+    assertAll(
+        () -> assertEquals(sequential.validatedRun(source), parallel.validatedRun(source)),
+        () -> assertEquals(sequential.validatedRun(source), parallel.compile().validatedRun(source)),
+        () -> assertEquals(Option.none(), parallel.safeRun(source))
+    );
+  }
+
+  @Test
+  void lazyIterable() {
+    Properties properties = new Properties();
+    properties.put("user.0.name", "a");
+    properties.put("user.0.pass", "a");
+    properties.put("user.1.name", "b");
+    properties.put("user.1.pass", "b");
+    properties.put("user.2.name", "c");
+    Source source = Source.from(properties);
+    PureCFG<User> user = mapN(readString("name"), readString("pass")).apply(User::new);
+    PureCFG<List<User>> program = PureCFG.readLazyIterable("user", user);
+
+    List<User> users = program.unsafeRun(source);
+    List<User> compiled = program.compile().unsafeRun(source);
+
+    assertAll(
+        () -> assertEquals(3, users.size()),
+        () -> assertEquals(new User("b", "b"), users.get(1)),
+        () -> assertSame(users.get(1), users.get(1)),
+        () -> assertThrows(NoSuchElementException.class, () -> users.get(2)),
+        () -> assertEquals(3, compiled.size()),
+        () -> assertEquals(new User("a", "a"), compiled.get(0)),
+        () -> assertThrows(NoSuchElementException.class, () -> compiled.get(2)),
+        () -> assertEquals(true, program.validatedRun(source).isValid()),
+        () -> assertEquals("""
+            - user.[].name: String
+            - user.[].pass: String
+            """, program.describe())
+    );
+  }
+
+  @Test
+  void primitiveArrays() {
+    Properties properties = new Properties();
+    properties.put("limits.0", "10");
+    properties.put("limits.1", "20");
+    properties.put("sizes.0", "3000000000");
+    properties.put("buckets.0", "0.5");
+    properties.put("buckets.1", "0.99");
+    var toml = Toml.parse(
+        """
+        limits = [10, 20]
+        sizes = [3000000000]
+        buckets = [0.5, 0.99]
+        """);
+    PureCFG<Tuple3<int[], long[], double[]>> program = mapN(
+        PureCFG.readIntArray("limits"), PureCFG.readLongArray("sizes"), PureCFG.readDoubleArray("buckets"))
+        .apply(Tuple::of);
+
+    for (Source source : List.of(Source.from(properties), Source.from(toml))) {
+      var result = program.unsafeRun(source);
+      var compiled = program.compile().unsafeRun(source);
+      assertAll(
+          () -> assertArrayEquals(new int[] { 10, 20 }, result.get1()),
+          () -> assertArrayEquals(new long[] { 3000000000L }, result.get2()),
+          () -> assertArrayEquals(new double[] { 0.5, 0.99 }, result.get3()),
+          () -> assertArrayEquals(new int[] { 10, 20 }, compiled.get1()),
+          () -> assertArrayEquals(new int[0], PureCFG.readIntArray("missing").unsafeRun(source))
+      );
+    }
+    assertEquals("""
+        - limits: int[]
+        - sizes: long[]
+        - buckets: double[]
+        """, program.describe());
+  }
+
+  @Test
+  void primitiveArraysWithErrors() {
+    Properties properties = new Properties();
+    properties.put("limits.0", "10");
+    properties.put("limits.1", "x");
+    properties.put("sizes.0", "1.5");
+    properties.put("buckets.0", "a");
+    var toml = Toml.parse(
+        """
+        limits = [10, 1.5]
+        sizes = [1, 2.5]
+        buckets = [0.5, "a"]
+        big = [10, 3000000000]
+        """);
+
+    for (Source source : List.of(Source.from(properties), Source.from(toml))) {
+      for (PureCFG<?> program : List.of(
+          PureCFG.readIntArray("limits"), PureCFG.readLongArray("sizes"), PureCFG.readDoubleArray("buckets"))) {
+        CompiledCFG<?> compiled = program.compile();
+        assertAll(
+            () -> assertEquals(Option.none(), program.safeRun(source)),
+            () -> assertEquals(Option.none(), compiled.safeRun(source)),
+            () -> assertEquals(false, program.validatedRun(source).isValid()),
+            () -> assertEquals(program.validatedRun(source), compiled.validatedRun(source)),
+            () -> assertEquals(false, compiled.bind(source).isValid())
+        );
+      }
+    }
+
+    Source source = Source.from(toml);
+    assertAll(
+        () -> assertEquals(Option.none(), PureCFG.readIntArray("big").safeRun(source)),
+        () -> assertArrayEquals(new long[] { 10, 3000000000L }, PureCFG.readLongArray("big").unsafeRun(source)),
+        () -> assertEquals(false, readIterable("big", Integer.class).validate(source).isValid()),
+        () -> assertEquals(false, readIterable("limits", Integer.class).validate(source).isValid()),
+        () -> assertEquals(listOf(10.0, 1.5), readIterable("limits", Double.class).unsafeRun(source))
+    );
+  }
+
+  @Test
+  void numbersAndUnits() {
+    Properties properties = new Properties();
+    properties.put("limits.max", "3000000000");
+    properties.put("limits.ratio", "0.75");
+    properties.put("limits.timeout", "30s");
+    properties.put("limits.buffer", "64k");
+    var toml = Toml.parse(
+        """
+        [limits]
+          max = 3000000000
+          ratio = 0.75
+          timeout = "PT30S"
+          buffer = 65536
+        """);
+    PureCFG<Limits> program = PureCFG.readConfig("limits",
+        mapN(PureCFG.readLong("max"), PureCFG.readDouble("ratio"),
+            PureCFG.readDuration("timeout"), PureCFG.readByteSize("buffer")).apply(Limits::new));
+    Limits expected = new Limits(3000000000L, 0.75, Duration.ofSeconds(30), 65536);
+
+    for (Source source : List.of(Source.from(properties), Source.from(toml))) {
+      assertAll(
+          () -> assertEquals(expected, program.unsafeRun(source)),
+          () -> assertEquals(Option.some(expected), program.safeRun(source)),
+          () -> assertEquals(Validation.valid(expected), program.validatedRun(source)),
+          () -> assertEquals(expected, program.compile().unsafeRun(source))
+      );
+    }
+    assertAll(
+        () -> assertEquals(Duration.ofMillis(500), PureCFG.readDuration("a").unsafeRun(Source.fromArgs("-a", "500ms"))),
+        () -> assertEquals(10L << 20, PureCFG.readByteSize("a").unsafeRun(Source.fromArgs("-a", "10MB"))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> PureCFG.readDuration("a").unsafeRun(Source.fromArgs("-a", "10 parsecs"))),
+        () -> assertEquals("""
+            - limits.max: Long
+            - limits.ratio: Double
+            - limits.timeout: Duration
+            - limits.buffer: ByteSize
+            """, program.describe())
+    );
+  }
+
+  @Test
+  void structuredErrors() {
+    Properties properties = new Properties();
+    properties.put("server.port", "abc");
+    for (int i = 0; i < 50000; i++) {
+      properties.put("user." + i + ".name", "name" + i);
+    }
+    Source source = Source.from(properties);
+
+    Validation<ConfigErrors, Config> config = readConfig().validate(source);
+    Validation<ConfigErrors, Iterable<User>> users = readUsers().validate(source, 10);
+
+    assertAll(
+        () -> assertEquals(List.of(
+                new ConfigError("server.active", "Boolean", "key not found"),
+                new ConfigError("server.port", "Integer", "invalid value (For input string: \"abc\")"),
+                new ConfigError("server.host", "String", "key not found")),
+            config.getError().errors()),
+        () -> assertEquals(50000, users.getError().count()),
+        () -> assertEquals(10, users.getError().errors().size()),
+        () -> assertEquals(true, users.getError().isTruncated()),
+        () -> assertEquals(new ConfigError("user.0.pass", "String", "key not found"), users.getError().errors().get(0)),
+        () -> assertEquals(readUsers().validatedRun(source), readUsers().compile().validatedRun(source))
+    );
+  }
+
   @Test
   void analyze() {
     PureCFG<Config> program = readConfig();
@@ -201,6 +885,31 @@ class PureCFGTest extends IOTestSpec<String> {
         """, result);
   }
 
+  @Test
+  void schema() {
+    PureCFG<Iterable<User>> users = PureCFG.readConfig("app", readUsers());
+
+    Schema schema = users.schema();
+
+    assertAll(
+        () -> assertEquals(List.of(
+            new Schema.Field("app", "Config", Schema.Kind.CONFIG, List.of(
+                new Schema.Field("app.user", "List", Schema.Kind.LIST, List.of(
+                    new Schema.Field("app.user.[].name", "String", Schema.Kind.VALUE, List.of()),
+                    new Schema.Field("app.user.[].pass", "String", Schema.Kind.VALUE, List.of())))))),
+            schema.fields()),
+        () -> assertEquals("""
+            - app.user.[].name: String
+            - app.user.[].pass: String
+            """, schema.render()),
+        () -> assertEquals("[{\"key\":\"app\",\"type\":\"Config\",\"kind\":\"config\",\"children\":["
+            + "{\"key\":\"app.user\",\"type\":\"List\",\"kind\":\"list\",\"children\":["
+            + "{\"key\":\"app.user.[].name\",\"type\":\"String\",\"kind\":\"value\",\"children\":[]},"
+            + "{\"key\":\"app.user.[].pass\",\"type\":\"String\",\"kind\":\"value\",\"children\":[]}]}]}]",
+            schema.toJson())
+    );
+  }
+
   private TestSuite<IO<?>, String> test(PureCFG<Config> program, Source source) {
     return suite("PureCFG",
         it.should("read config from " + source)
@@ -218,6 +927,389 @@ class PureCFGTest extends IOTestSpec<String> {
       );
   }
 
+  @Test
+  void product() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    properties.put("server.active", "true");
+    Source source = Source.from(properties);
+
+    PureCFG<Config> program = PureCFG.readConfig("server",
+        PureCFG.product(List.of(readString("host"), readInt("port"), readBoolean("active")),
+            values -> new Config((String) values[0], (Integer) values[1], (Boolean) values[2])));
+
+    assertAll(
+        () -> assertEquals(expectedConfig, program.unsafeRun(source)),
+        () -> assertEquals(Option.some(expectedConfig), program.safeRun(source)),
+        () -> assertEquals(Validation.valid(expectedConfig), program.validatedRun(source)),
+        () -> assertEquals(expectedConfig, program.compile().unsafeRun(source)),
+        () -> assertEquals(program.describe(), readConfig().describe()),
+        () -> assertEquals(Option.none(), program.safeRun(Source.from(new Properties()))),
+        () -> assertEquals(
+            Validation.invalid(
+                Validation.Result.of(
+                    "key not found: server.host",
+                    "key not found: server.port",
+                    "key not found: server.active")),
+            program.validatedRun(Source.from(new Properties()))),
+        () -> assertEquals(program.validatedRun(Source.from(new Properties())),
+            program.compile().validatedRun(Source.from(new Properties())))
+    );
+  }
+
+  @Test
+  void forRecord() {
+    Properties properties = new Properties();
+    properties.put("team.name", "core");
+    properties.put("team.timeout", "5s");
+    properties.put("team.server.host", "localhost");
+    properties.put("team.server.port", "8080");
+    properties.put("team.server.active", "true");
+    properties.put("team.users.0.name", "a");
+    properties.put("team.users.0.pass", "a");
+    properties.put("team.users.1.name", "b");
+    properties.put("team.users.1.pass", "b");
+    properties.put("team.tags.0", "x");
+    properties.put("team.tags.1", "y");
+    Source source = Source.from(properties);
+
+    PureCFG<Team> program = PureCFG.readConfig("team", PureCFG.forRecord(Team.class));
+    Team expected = new Team("core", Duration.ofSeconds(5), expectedConfig,
+        List.of(new User("a", "a"), new User("b", "b")), List.of("x", "y"));
+
+    assertAll(
+        () -> assertSame(PureCFG.forRecord(Team.class), PureCFG.forRecord(Team.class)),
+        () -> assertEquals(expected, program.unsafeRun(source)),
+        () -> assertEquals(Option.some(expected), program.safeRun(source)),
+        () -> assertEquals(Validation.valid(expected), program.validatedRun(source)),
+        () -> assertEquals(expected, program.compile().unsafeRun(source)),
+        () -> assertEquals(expectedConfig, PureCFG.readConfig("team.server", PureCFG.forRecord(Config.class)).unsafeRun(source)),
+        () -> assertThrows(IllegalArgumentException.class, () -> PureCFG.forRecord(Node.class))
+    );
+  }
+
+  @Test
+  void asyncRun() {
+    Properties properties = new Properties();
+    for (int i = 0; i < 20; i++) {
+      properties.put("key" + i, String.valueOf(i));
+    }
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Source source = Source.from(properties);
+    AsyncSource slow = new AsyncSource() {
+      @Override
+      public CompletableFuture<Option<String>> getString(String key) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          running.decrementAndGet();
+        }
+        return CompletableFuture.completedFuture(source.getString(key));
+      }
+
+      @Override
+      public Source source() {
+        return source;
+      }
+    };
+    List<PureCFG<?>> fields = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      fields.add(readInt("key" + i));
+    }
+    PureCFG<Integer> sum = PureCFG.product(fields, values -> Arrays.stream(values).mapToInt(Integer.class::cast).sum());
+
+    long start = System.nanoTime();
+    int result = sum.asyncRun(slow, 10).join();
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    PureCFG<Config> missing = readConfig();
+    assertAll(
+        () -> assertEquals(190, result),
+        () -> assertTrue(elapsed < 1000, "sequential would take 2000ms, took " + elapsed + "ms"),
+        () -> assertTrue(maxRunning.get() <= 10, "max concurrency exceeded: " + maxRunning.get()),
+        () -> assertEquals(missing.validate(source).getError().errors(),
+            missing.asyncValidate(AsyncSource.from(source), 2).join().getError().errors()),
+        () -> assertEquals(NoSuchElementException.class,
+            assertThrows(CompletionException.class, () -> missing.asyncRun(AsyncSource.from(source)).join()).getCause().getClass())
+    );
+  }
+
+  @Test
+  void asyncRunWithFailedLookup() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    Source source = Source.from(properties);
+    AsyncSource failing = new AsyncSource() {
+      @Override
+      public CompletableFuture<Option<String>> getString(String key) {
+        if (key.equals("server.host")) {
+          return CompletableFuture.failedFuture(new IllegalStateException("timeout"));
+        }
+        return CompletableFuture.completedFuture(source.getString(key));
+      }
+
+      @Override
+      public Source source() {
+        return source;
+      }
+    };
+
+    var result = readConfig().asyncValidate(failing, 2).join();
+
+    assertAll(
+        () -> assertEquals(
+            List.of(
+                new ConfigError("server.active", "Boolean", "key not found"),
+                new ConfigError("server.host", "String", "lookup failed (timeout)")),
+            result.getError().errors().stream().sorted(Comparator.comparing(ConfigError::key)).toList()),
+        () -> assertEquals(NoSuchElementException.class,
+            assertThrows(CompletionException.class, () -> readConfig().asyncRun(failing).join()).getCause().getClass())
+    );
+  }
+
+  @Test
+  void instrumented() throws Exception {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    LookupMetrics metrics = new LookupMetrics();
+    Source source = Source.instrumented(Source.from(properties), metrics);
+
+    readConfig().safeRun(source);
+    readConfig().safeRun(source);
+
+    var name = JmxMetrics.register(metrics, "com.github.tonivade.purecfg:type=LookupMetrics,name=test");
+    try {
+      var server = ManagementFactory.getPlatformMBeanServer();
+      assertAll(
+          () -> assertEquals(List.of("server.active", "server.host", "server.port"),
+              metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::key).toList()),
+          () -> assertEquals(List.of(0L, 2L, 2L),
+              metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::hits).toList()),
+          () -> assertEquals(List.of(2L, 0L, 0L),
+              metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::misses).toList()),
+          () -> assertEquals(2L, metrics.snapshot().get(0).histogram().stream().mapToLong(Long::longValue).sum()),
+          () -> assertEquals(6L, server.getAttribute(name, "TotalLookups")),
+          () -> assertEquals(Map.of("server.active", 0L, "server.host", 2L, "server.port", 2L), new JmxMetrics(metrics).getHits()),
+          () -> assertEquals(List.of("<=1us", "<=10us", "<=100us", "<=1ms", "<=10ms", "<=100ms", "<=1s", ">1s"),
+              List.of((String[]) server.getAttribute(name, "HistogramBuckets"))),
+          () -> assertEquals(2L, Arrays.stream(new JmxMetrics(metrics).getHistogram().get("server.host")).sum()),
+          () -> assertEquals(3, ((TabularData) server.getAttribute(name, "Histogram")).size())
+      );
+    } finally {
+      JmxMetrics.unregister(name);
+    }
+  }
+
+  @Test
+  void instrumentedFailure() {
+    Properties properties = new Properties();
+    properties.put("server.port", "80x");
+    LookupMetrics metrics = new LookupMetrics();
+    Source source = Source.instrumented(Source.from(properties), metrics);
+
+    assertAll(
+        () -> assertThrows(NumberFormatException.class, () -> source.getInteger("server.port")),
+        () -> assertEquals(List.of("server.port"), metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::key).toList()),
+        () -> assertEquals(List.of(1L), metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::misses).toList())
+    );
+  }
+
+  @Test
+  void tracedRun() {
+    Source args = Source.fromArgs("-server.port", "8080");
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "9090");
+    Source props = Source.from(properties);
+    Source toml = Source.from(Toml.parse(
+        """
+        [server]
+          active = true
+        """));
+
+    Provenance<Config> traced = readConfig().tracedRun(Source.layered(args, props, toml));
+    Map<String, Provenance.Entry> entries = new HashMap<>();
+    traced.entries().forEach(entry -> entries.put(entry.key(), entry));
+
+    Provenance<Config> missing = readConfig().tracedRun(props);
+
+    assertAll(
+        () -> assertEquals(Option.some(expectedConfig), traced.value()),
+        () -> assertEquals(3, traced.size()),
+        () -> assertEquals(Option.some(args), entries.get("server.port").origin()),
+        () -> assertEquals(Option.some("8080"), entries.get("server.port").raw()),
+        () -> assertEquals(Option.some(props), entries.get("server.host").origin()),
+        () -> assertEquals(Option.some("localhost"), entries.get("server.host").raw()),
+        () -> assertEquals(Option.some(toml), entries.get("server.active").origin()),
+        () -> assertEquals(Option.some("true"), entries.get("server.active").raw()),
+        () -> assertEquals(Option.none(), missing.value()),
+        () -> assertEquals(List.of(Option.some(props), Option.some(props), Option.none()),
+            missing.entries().stream().sorted(Comparator.comparing(Provenance.Entry::key).reversed())
+              .map(Provenance.Entry::origin).toList()),
+        () -> assertTrue(missing.render().contains("- server.active: not found"))
+    );
+  }
+
+  @Test
+  void tracedRunReadsEveryKeyOnce() {
+    Properties properties = new Properties();
+    properties.put("server.host", "localhost");
+    properties.put("server.port", "8080");
+    properties.put("server.active", "true");
+    properties.put("timeout", "30s");
+    Source props = Source.from(properties);
+    LookupMetrics metrics = new LookupMetrics();
+    LookupMetrics layeredMetrics = new LookupMetrics();
+
+    Provenance<Duration> timeout = PureCFG.readDuration("timeout").tracedRun(Source.instrumented(props, metrics));
+    Provenance<Config> layered =
+        readConfig().tracedRun(Source.instrumented(Source.layered(props), layeredMetrics));
+
+    assertAll(
+        () -> assertEquals(Option.some(Duration.ofSeconds(30)), timeout.value()),
+        () -> assertEquals(Option.some("30s"), timeout.entry(0).raw()),
+        () -> assertEquals(List.of(1L), metrics.snapshot().stream().map(LookupMetrics.KeyMetrics::lookups).toList()),
+        () -> assertEquals(Option.some(expectedConfig), layered.value()),
+        () -> assertEquals(List.of(1L, 1L, 1L),
+            layeredMetrics.snapshot().stream().map(LookupMetrics.KeyMetrics::lookups).toList()),
+        () -> assertEquals(List.of(Option.some(props), Option.some(props), Option.some(props)),
+            layered.entries().stream().map(Provenance.Entry::origin).toList())
+    );
+  }
+
+  @Test
+  void configCache(@TempDir Path folder) throws IOException {
+    Path file = folder.resolve("config.toml");
+    Path cache = folder.resolve("config.cache");
+    Files.writeString(file,
+        """
+        [server]
+          host = "localhost"
+          port = 8080
+          active = true
+          other = "not required"
+        """);
+    AtomicInteger loads = new AtomicInteger();
+    PureCFG<Config> program = readConfig();
+
+    Source first = ConfigCache.load(cache, program, List.of(file), () -> {
+      loads.incrementAndGet();
+      return Source.fromToml(file);
+    });
+    Source second = ConfigCache.load(cache, program, List.of(file), () -> {
+      throw new AssertionError("cache not used");
+    });
+
+    Files.writeString(file,
+        """
+        [server]
+          host = "localhost"
+          port = 9090
+          active = true
+        """);
+    Source changed = ConfigCache.load(cache, program, List.of(file), () -> {
+      loads.incrementAndGet();
+      return Source.fromToml(file);
+    });
+
+    Files.write(cache, new byte[] { 1, 2, 3 });
+    Source corrupted = ConfigCache.load(cache, program, List.of(file), () -> {
+      loads.incrementAndGet();
+      return Source.fromToml(file);
+    });
+
+    assertAll(
+        () -> assertEquals(expectedConfig, program.unsafeRun(first)),
+        () -> assertEquals(expectedConfig, program.unsafeRun(second)),
+        () -> assertEquals(Option.none(), second.getString("server.other")),
+        () -> assertEquals(9090, program.unsafeRun(changed).port()),
+        () -> assertEquals(9090, program.unsafeRun(corrupted).port()),
+        () -> assertEquals(3, loads.get())
+    );
+  }
+
+  @Test
+  void configCacheSameValuesColdAndWarm(@TempDir Path folder) throws IOException {
+    Path file = folder.resolve("config.toml");
+    Path cache = folder.resolve("config.cache");
+    Files.writeString(file,
+        """
+        [server]
+          host = "localhost"
+          port = "8080"
+          active = true
+        """);
+    PureCFG<Config> program = readConfig();
+
+    Source cold = ConfigCache.load(cache, program, List.of(file), () -> Source.fromToml(file));
+    Source warm = ConfigCache.load(cache, program, List.of(file), () -> {
+      throw new AssertionError("cache not used");
+    });
+
+    try (var files = Files.list(folder)) {
+      List<Path> content = files.map(Path::getFileName).sorted().toList();
+
+      assertAll(
+          () -> assertEquals(expectedConfig, program.unsafeRun(cold)),
+          () -> assertEquals(expectedConfig, program.unsafeRun(warm)),
+          () -> assertEquals(List.of(Path.of("config.cache"), Path.of("config.toml")), content)
+      );
+    }
+  }
+
+  @Test
+  void generatedReader() {
+    Properties properties = new Properties();
+    properties.put("service.name", "api");
+    properties.put("service.port", "8080");
+    properties.put("service.active", "true");
+    properties.put("service.maxSize", "3000000000");
+    properties.put("service.ratio", "0.5");
+    properties.put("service.timeout", "30s");
+    properties.put("service.pool.min", "1");
+    properties.put("service.pool.max", "10");
+    Source source = Source.from(properties);
+    Service expected = new Service("api", 8080, true, 3000000000L, 0.5, Duration.ofSeconds(30), new Pool(1, 10));
+
+    assertAll(
+        () -> assertEquals(expected, ServiceReader.unsafeRun(source)),
+        () -> assertEquals(Option.some(expected), ServiceReader.safeRun(source)),
+        () -> assertEquals(expected, ServiceReader.program().unsafeRun(source)),
+        () -> assertEquals(expected, ServiceReader.program().compile().unsafeRun(source)),
+        () -> assertEquals(new Pool(1, 10), PoolReader.unsafeRun(source, "service.pool")),
+        () -> assertEquals(new Pool(1, 10), PoolReader.program("service.pool").unsafeRun(source)),
+        () -> assertEquals(Option.none(), ServiceReader.safeRun(Source.from(new Properties()))),
+        () -> assertThrows(NoSuchElementException.class, () -> ServiceReader.unsafeRun(Source.from(new Properties())))
+    );
+  }
+
+  @Test
+  void generatedReaderWithErrors() {
+    Properties properties = new Properties();
+    properties.put("service.name", "api");
+    properties.put("service.port", "80x");
+    properties.put("service.active", "true");
+    properties.put("service.maxSize", "3000000000");
+    properties.put("service.ratio", "0.5");
+    properties.put("service.timeout", "30 parsecs");
+    properties.put("service.pool.min", "1");
+    properties.put("service.pool.max", "10");
+    Source source = Source.from(properties);
+
+    assertAll(
+        () -> assertEquals(Option.none(), ServiceReader.safeRun(source)),
+        () -> assertEquals(Option.none(), ServiceReader.program().safeRun(source)),
+        () -> assertThrows(NumberFormatException.class, () -> ServiceReader.unsafeRun(source))
+    );
+  }
+
   private PureCFG<Config> readConfig() {
     return PureCFG.readConfig("server", readHostAndPort());
   }
@@ -241,3 +1333,20 @@ record Config(String host, int port, boolean active) {
 
 record User(String name, String pass) {
 }
+
+record Limits(long max, double ratio, Duration timeout, long buffer) {
+}
+
+record Team(String name, Duration timeout, Config server, List<User> users, List<String> tags) {
+}
+
+record Node(String name, List<Node> children) {
+}
+
+@PureConfig("service")
+record Service(String name, int port, boolean active, long maxSize, double ratio, Duration timeout, Pool pool) {
+}
+
+@PureConfig
+record Pool(int min, int max) {
+}